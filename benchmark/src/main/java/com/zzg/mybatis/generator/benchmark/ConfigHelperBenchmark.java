@@ -0,0 +1,106 @@
+package com.zzg.mybatis.generator.benchmark;
+
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.model.GeneratorConfig;
+import com.zzg.mybatis.generator.util.ConfigHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigHelper loading and saving the connections and generator configs of the sqlite config db. The entries are
+ * added to ./config/sqlite3.db of the working directory and removed again afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+public class ConfigHelperBenchmark {
+
+	private static final String NAME_PREFIX = "benchmark-config-";
+
+	/**
+	 * number of saved entries of each kind
+	 */
+	@Param({"10", "100"})
+	private int entries;
+
+	private GeneratorConfig generatorConfig;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ConfigHelper.createEmptyFiles();
+		tearDown();
+		for (int i = 0; i < entries; i++) {
+			DatabaseConfig databaseConfig = new DatabaseConfig();
+			databaseConfig.setName(NAME_PREFIX + i);
+			databaseConfig.setDbType("MySQL");
+			databaseConfig.setHost("localhost");
+			databaseConfig.setPort("3306");
+			databaseConfig.setSchema("benchmark");
+			databaseConfig.setUsername("root");
+			databaseConfig.setPassword("");
+			databaseConfig.setEncoding("utf8");
+			ConfigHelper.saveDatabaseConfig(false, null, databaseConfig);
+			GeneratorConfig config = SchemaBuilder.generatorConfig(new File("benchmark-project"));
+			config.setName(NAME_PREFIX + i);
+			ConfigHelper.saveGeneratorConfig(config);
+		}
+		generatorConfig = SchemaBuilder.generatorConfig(new File("benchmark-project"));
+		generatorConfig.setName(NAME_PREFIX + "saved");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		for (DatabaseConfig databaseConfig : ConfigHelper.loadDatabaseConfig()) {
+			if (databaseConfig.getName().startsWith(NAME_PREFIX)) {
+				ConfigHelper.deleteDatabaseConfig(databaseConfig);
+			}
+		}
+		for (GeneratorConfig config : ConfigHelper.loadGeneratorConfigs()) {
+			if (config.getName().startsWith(NAME_PREFIX)) {
+				ConfigHelper.deleteGeneratorConfig(config.getName());
+			}
+		}
+	}
+
+	@Benchmark
+	public List<DatabaseConfig> loadDatabaseConfig() throws Exception {
+		return ConfigHelper.loadDatabaseConfig();
+	}
+
+	@Benchmark
+	public List<GeneratorConfig> loadGeneratorConfigs() throws Exception {
+		return ConfigHelper.loadGeneratorConfigs();
+	}
+
+	@Benchmark
+	public GeneratorConfig loadGeneratorConfig() throws Exception {
+		return ConfigHelper.loadGeneratorConfig(NAME_PREFIX + (entries - 1));
+	}
+
+	/**
+	 * Saving replaces the config of the same name, the way the generator config dialog does it
+	 */
+	@Benchmark
+	public void saveGeneratorConfig() throws Exception {
+		ConfigHelper.deleteGeneratorConfig(generatorConfig.getName());
+		ConfigHelper.saveGeneratorConfig(generatorConfig);
+	}
+}
@@ -0,0 +1,102 @@
+package com.zzg.mybatis.generator.benchmark;
+
+import com.zzg.mybatis.generator.bridge.MybatisGeneratorBridge;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.model.GeneratorConfig;
+import com.zzg.mybatis.generator.util.ConnectionPool;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MybatisGeneratorBridge.generate() end to end over a synthetic schema: introspection, generation, the controller
+ * and page templates and the file writes. A run takes seconds on large schemas, so every invocation is timed on
+ * its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+public class GenerateBenchmark {
+
+	@Param({"10", "100", "1000", "5000"})
+	private int tables;
+
+	@Param({"20"})
+	private int columns;
+
+	@Param({"0"})
+	private int workerThreads;
+
+	private File workDir;
+
+	private DatabaseConfig databaseConfig;
+
+	private GeneratorConfig generatorConfig;
+
+	private List<String> tableNames;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		workDir = Files.createTempDirectory("auto-crud-benchmark").toFile();
+		databaseConfig = SchemaBuilder.build(new File(workDir, "schema.db"), tables, columns);
+		File projectFolder = new File(workDir, "project");
+		for (String folder : new String[]{"src/main/java", "src/main/resources"}) {
+			new File(projectFolder, folder).mkdirs();
+		}
+		generatorConfig = SchemaBuilder.generatorConfig(projectFolder);
+		generatorConfig.setWorkerThreads(workerThreads);
+		tableNames = SchemaBuilder.tableNames(tables);
+		// fills the generation manifest for the unchanged run
+		generate(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		ConnectionPool.close(databaseConfig);
+		FileUtils.deleteDirectory(workDir);
+	}
+
+	/**
+	 * Every table generated and written
+	 */
+	@Benchmark
+	public void generateAll() throws Exception {
+		generate(true);
+	}
+
+	/**
+	 * Nothing changed since the last run, only the table fingerprints are checked
+	 */
+	@Benchmark
+	public void generateUnchanged() throws Exception {
+		generate(false);
+	}
+
+	private void generate(boolean regenerateAll) throws Exception {
+		generatorConfig.setRegenerateAll(regenerateAll);
+		MybatisGeneratorBridge bridge = new MybatisGeneratorBridge();
+		bridge.setGeneratorConfig(generatorConfig);
+		bridge.setDatabaseConfig(databaseConfig);
+		bridge.setTableNames(tableNames);
+		bridge.generate();
+	}
+}
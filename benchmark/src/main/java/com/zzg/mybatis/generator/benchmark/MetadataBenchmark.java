@@ -0,0 +1,87 @@
+package com.zzg.mybatis.generator.benchmark;
+
+import com.zzg.mybatis.generator.model.ColumnMetadata;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.util.ConnectionPool;
+import com.zzg.mybatis.generator.util.DbUtil;
+import com.zzg.mybatis.generator.util.MetadataCache;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DbUtil.getTableNames and getTableColumns, read from the database or served from the metadata cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+public class MetadataBenchmark {
+
+	@Param({"10", "1000", "5000"})
+	private int tables;
+
+	@Param({"20"})
+	private int columns;
+
+	/**
+	 * false expires every cache entry at once, so each call reads the database and stores the result again
+	 */
+	@Param({"true", "false"})
+	private boolean cached;
+
+	private File workDir;
+
+	private DatabaseConfig databaseConfig;
+
+	private List<String> tableNames;
+
+	private int nextTable;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		workDir = Files.createTempDirectory("auto-crud-benchmark").toFile();
+		databaseConfig = SchemaBuilder.build(new File(workDir, "schema.db"), tables, columns);
+		tableNames = SchemaBuilder.tableNames(tables);
+		MetadataCache.invalidate(databaseConfig);
+		// entries stored in the same millisecond are still fresh with a ttl of 0
+		MetadataCache.setTtlMillis(cached ? TimeUnit.DAYS.toMillis(1) : -1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		MetadataCache.invalidate(databaseConfig);
+		ConnectionPool.close(databaseConfig);
+		FileUtils.deleteDirectory(workDir);
+	}
+
+	@Benchmark
+	public List<String> getTableNames() throws Exception {
+		return DbUtil.getTableNames(databaseConfig);
+	}
+
+	@Benchmark
+	public List<ColumnMetadata> getTableColumns() throws Exception {
+		String tableName = tableNames.get(nextTable);
+		nextTable = (nextTable + 1) % tableNames.size();
+		return DbUtil.getTableColumns(databaseConfig, tableName);
+	}
+}
@@ -0,0 +1,107 @@
+package com.zzg.mybatis.generator.benchmark;
+
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.model.DbType;
+import com.zzg.mybatis.generator.model.GeneratorConfig;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a synthetic SQLite schema of N tables with M columns each, shaped like the tables the generator is used
+ * on: an id primary key, columns of the common types with Chinese remarks, and the add_time, update_time and
+ * del_flag columns the generated pages treat specially.
+ * <p>
+ * The remarks are kept as comments in the table DDL. The SQLite driver doesn't report column remarks, so the
+ * generated entities carry no field comments.
+ */
+public class SchemaBuilder {
+
+	private static final String[] COLUMN_TYPES = {"varchar(64)", "int", "decimal(10,2)", "timestamp", "text"};
+
+	private static final String[] COLUMN_REMARKS = {"名称", "数量", "金额", "时间", "说明"};
+
+	public static String tableName(int index) {
+		return String.format("t_bench_table_%04d", index);
+	}
+
+	public static List<String> tableNames(int tables) {
+		List<String> names = new ArrayList<>(tables);
+		for (int i = 0; i < tables; i++) {
+			names.add(tableName(i));
+		}
+		return names;
+	}
+
+	/**
+	 * Create the tables in a new SQLite database file
+	 *
+	 * @return the connection config of the database
+	 */
+	public static DatabaseConfig build(File dbFile, int tables, int columns) throws SQLException {
+		if (dbFile.exists() && !dbFile.delete()) {
+			throw new SQLException("can't delete " + dbFile);
+		}
+		Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+		try {
+			connection.setAutoCommit(false);
+			Statement stat = connection.createStatement();
+			for (int i = 0; i < tables; i++) {
+				stat.executeUpdate(createTableSql(tableName(i), columns));
+			}
+			stat.close();
+			connection.commit();
+		} finally {
+			connection.close();
+		}
+		DatabaseConfig config = new DatabaseConfig();
+		config.setName("benchmark-" + tables + "x" + columns);
+		config.setDbType(DbType.Sqlite.name());
+		config.setHost(dbFile.getAbsolutePath());
+		config.setPort("0");
+		config.setSchema("");
+		config.setUsername("");
+		config.setPassword("");
+		config.setEncoding("utf8");
+		return config;
+	}
+
+	static String createTableSql(String tableName, int columns) {
+		StringBuilder sql = new StringBuilder("CREATE TABLE ").append(tableName).append(" (\n");
+		sql.append("  id integer PRIMARY KEY, -- 主键\n");
+		for (int i = 0; i < columns; i++) {
+			int type = i % COLUMN_TYPES.length;
+			sql.append(String.format("  column_%03d %s, -- %s%d, 第%d列\n", i, COLUMN_TYPES[type], COLUMN_REMARKS[type],
+					i, i));
+		}
+		sql.append("  add_time timestamp, -- 创建时间\n");
+		sql.append("  update_time timestamp, -- 更新时间\n");
+		sql.append("  del_flag int -- 删除标记\n");
+		return sql.append(")").toString();
+	}
+
+	/**
+	 * Generator config writing everything below the project folder
+	 */
+	public static GeneratorConfig generatorConfig(File projectFolder) {
+		GeneratorConfig config = new GeneratorConfig();
+		config.setName("benchmark");
+		config.setProjectFolder(projectFolder.getAbsolutePath());
+		config.setModelPackage("com.example.model");
+		config.setModelPackageTargetFolder("src/main/java");
+		config.setDaoPackage("com.example.mapper");
+		config.setDaoTargetFolder("src/main/java");
+		config.setMappingXMLPackage("com.example.mapper");
+		config.setMappingXMLTargetFolder("src/main/resources");
+		config.setEncoding("UTF-8");
+		config.setComment(true);
+		config.setOffsetLimit(true);
+		config.setNeedToStringHashcodeEquals(true);
+		return config;
+	}
+}
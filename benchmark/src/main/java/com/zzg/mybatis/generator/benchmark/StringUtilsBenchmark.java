@@ -0,0 +1,37 @@
+package com.zzg.mybatis.generator.benchmark;
+
+import com.zzg.mybatis.generator.util.MyStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyStringUtils.dbStringToCamelStyle over table and column names of different shapes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+public class StringUtilsBenchmark {
+
+	private final String[] names = {"id", "user_name", "T_ORDER_ITEM", "t_bench_table_0001",
+			"sys_user_role_permission_relation", "column_019", "add_time"};
+
+	@Benchmark
+	public void dbStringToCamelStyle(Blackhole blackhole) {
+		for (String name : names) {
+			blackhole.consume(MyStringUtils.dbStringToCamelStyle(name));
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package com.zzg.mybatis.generator;
+
+import com.zzg.mybatis.generator.bridge.MybatisGeneratorBridge;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.model.GeneratorConfig;
+import com.zzg.mybatis.generator.util.ConfigHelper;
+import com.zzg.mybatis.generator.util.ConnectionPool;
+import com.zzg.mybatis.generator.util.DbUtil;
+import com.zzg.mybatis.generator.util.MyStringUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.mybatis.generator.api.ProgressCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 命令行入口, 使用界面中保存的数据库连接和生成配置生成代码. 不加载JavaFX, 可以在构建脚本和CI中运行:
+ * <pre>
+ * java -cp mybatis-generator-gui.jar com.zzg.mybatis.generator.MainCLI -d 数据库连接名 -g 配置名 -t t_user,t_order_*
+ * </pre>
+ * 结束时输出一行 key=value 格式的结果和各阶段耗时, 退出码见 EXIT_ 开头的常量
+ */
+public class MainCLI {
+
+	private static final Logger _LOG = LoggerFactory.getLogger(MainCLI.class);
+
+	public static final int EXIT_OK = 0;
+
+	/**
+	 * 生成失败
+	 */
+	public static final int EXIT_FAILED = 1;
+
+	/**
+	 * 参数错误
+	 */
+	public static final int EXIT_USAGE = 2;
+
+	/**
+	 * 找不到保存的数据库连接或生成配置
+	 */
+	public static final int EXIT_CONFIG_NOT_FOUND = 3;
+
+	/**
+	 * 没有要生成的表
+	 */
+	public static final int EXIT_NO_TABLES = 4;
+
+	private static final Map<String, String> OPTIONS = new HashMap<>();
+
+	static {
+		OPTIONS.put("-d", "database");
+		OPTIONS.put("--database", "database");
+		OPTIONS.put("-g", "generator");
+		OPTIONS.put("--generator", "generator");
+		OPTIONS.put("-t", "tables");
+		OPTIONS.put("--tables", "tables");
+		OPTIONS.put("-w", "workers");
+		OPTIONS.put("--workers", "workers");
+		OPTIONS.put("-i", "ioThreads");
+		OPTIONS.put("--io-threads", "ioThreads");
+	}
+
+	public static void main(String[] args) {
+		int exitCode;
+		try {
+			exitCode = run(args, System.out, System.err);
+		} finally {
+			ConnectionPool.shutdown();
+		}
+		System.exit(exitCode);
+	}
+
+	static int run(String[] args, PrintStream out, PrintStream err) {
+		Map<String, String> options = new HashMap<>();
+		boolean regenerateAll = false;
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if ("-h".equals(arg) || "--help".equals(arg)) {
+				printUsage(out);
+				return EXIT_OK;
+			}
+			if ("--all".equals(arg)) {
+				regenerateAll = true;
+			} else if (OPTIONS.containsKey(arg) && i + 1 < args.length) {
+				options.put(OPTIONS.get(arg), args[++i]);
+			} else {
+				err.println(OPTIONS.containsKey(arg) ? "缺少参数值: " + arg : "未知参数: " + arg);
+				printUsage(err);
+				return EXIT_USAGE;
+			}
+		}
+		if (StringUtils.isBlank(options.get("database")) || StringUtils.isBlank(options.get("generator"))) {
+			err.println("必须指定数据库连接(-d)和生成配置(-g)");
+			printUsage(err);
+			return EXIT_USAGE;
+		}
+		int workers = 0;
+		int ioThreads = 0;
+		try {
+			if (options.containsKey("workers")) {
+				workers = Integer.parseInt(options.get("workers"));
+			}
+			if (options.containsKey("ioThreads")) {
+				ioThreads = Integer.parseInt(options.get("ioThreads"));
+			}
+		} catch (NumberFormatException e) {
+			err.println("线程数必须是数字: " + e.getMessage());
+			return EXIT_USAGE;
+		}
+
+		Timing timing = new Timing();
+		int tableCount = 0;
+		int exitCode = EXIT_FAILED;
+		try {
+			ConfigHelper.createEmptyFiles();
+			DatabaseConfig databaseConfig = null;
+			for (DatabaseConfig config : ConfigHelper.loadDatabaseConfig()) {
+				if (options.get("database").equals(config.getName())) {
+					databaseConfig = config;
+				}
+			}
+			GeneratorConfig generatorConfig = ConfigHelper.loadGeneratorConfig(options.get("generator"));
+			timing.loadConfigMillis = timing.lap();
+			if (databaseConfig == null || generatorConfig == null) {
+				err.println(databaseConfig == null ? "找不到数据库连接: " + options.get("database")
+						: "找不到生成配置: " + options.get("generator"));
+				exitCode = EXIT_CONFIG_NOT_FOUND;
+				return exitCode;
+			}
+			generatorConfig.setRegenerateAll(regenerateAll);
+			if (workers > 0) {
+				generatorConfig.setWorkerThreads(workers);
+			}
+			if (ioThreads > 0) {
+				generatorConfig.setIoThreads(ioThreads);
+			}
+
+			MybatisGeneratorBridge bridge = new MybatisGeneratorBridge();
+			bridge.setGeneratorConfig(generatorConfig);
+			bridge.setDatabaseConfig(databaseConfig);
+			bridge.setProgressCallback(timing);
+			if (options.containsKey("tables")) {
+				List<String> tableNames = resolveTableNames(databaseConfig, options.get("tables"));
+				timing.listTablesMillis = timing.lap();
+				tableCount = tableNames.size();
+				bridge.setTableNames(tableNames);
+			} else if (StringUtils.isNotBlank(generatorConfig.getTableName())) {
+				// the single table saved with the generator config
+				tableCount = 1;
+			}
+			if (tableCount == 0) {
+				err.println("没有要生成的表");
+				exitCode = EXIT_NO_TABLES;
+				return exitCode;
+			}
+			bridge.generate();
+			for (String line : bridge.getReport()) {
+				out.println("report: " + line);
+			}
+			exitCode = EXIT_OK;
+			return exitCode;
+		} catch (Exception e) {
+			_LOG.error("generate failed", e);
+			err.println("代码生成失败: " + e.getMessage());
+			return exitCode;
+		} finally {
+			out.println(timing.summary(exitCode, tableCount));
+		}
+	}
+
+	/**
+	 * Table names of the comma separated list, names with *, % or ? are matched against the tables of the database
+	 */
+	private static List<String> resolveTableNames(DatabaseConfig databaseConfig, String tables) throws Exception {
+		Set<String> tableNames = new LinkedHashSet<>();
+		List<String> allTableNames = null;
+		for (String table : tables.split(",")) {
+			table = table.trim();
+			if (table.isEmpty()) {
+				continue;
+			}
+			if (table.indexOf('*') < 0 && table.indexOf('%') < 0 && table.indexOf('?') < 0) {
+				tableNames.add(table);
+				continue;
+			}
+			if (allTableNames == null) {
+				// a cached table list may miss tables added since
+				allTableNames = DbUtil.reloadTableNames(databaseConfig);
+			}
+			for (String tableName : allTableNames) {
+				if (MyStringUtils.matchTableName(table, tableName)) {
+					tableNames.add(tableName);
+				}
+			}
+		}
+		return new ArrayList<>(tableNames);
+	}
+
+	private static void printUsage(PrintStream out) {
+		out.println("用法: MainCLI -d <数据库连接名> -g <生成配置名> [选项]");
+		out.println("  -d, --database <名称>    界面中保存的数据库连接");
+		out.println("  -g, --generator <名称>   界面中保存的生成配置");
+		out.println("  -t, --tables <表名,...>  要生成的表, 逗号分隔, 可以使用 *, % 和 ? 通配; 不指定则生成配置中保存的表");
+		out.println("  -w, --workers <n>        并行生成代码的线程数");
+		out.println("  -i, --io-threads <n>     同时写文件的线程数");
+		out.println("      --all                全部重新生成, 不跳过没有变化的表");
+		out.println("  -h, --help               显示本帮助");
+		out.println("退出码: 0 成功, 1 生成失败, 2 参数错误, 3 找不到配置, 4 没有要生成的表");
+	}
+
+	/**
+	 * Times the steps of a run, the generation phases are taken from the progress of the bridge
+	 */
+	private static class Timing implements ProgressCallback {
+
+		private final long startTime = System.currentTimeMillis();
+
+		private long lapTime = startTime;
+
+		private long loadConfigMillis;
+
+		private long listTablesMillis;
+
+		private long introspectMillis;
+
+		private long generateMillis;
+
+		private long saveMillis;
+
+		private int phase;
+
+		long lap() {
+			long now = System.currentTimeMillis();
+			long millis = now - lapTime;
+			lapTime = now;
+			return millis;
+		}
+
+		@Override
+		public void introspectionStarted(int totalTasks) {
+			endPhase();
+		}
+
+		@Override
+		public void generationStarted(int totalTasks) {
+			endPhase();
+		}
+
+		@Override
+		public void saveStarted(int totalTasks) {
+			endPhase();
+		}
+
+		@Override
+		public void startTask(String taskName) {
+		}
+
+		@Override
+		public void done() {
+			endPhase();
+		}
+
+		@Override
+		public void checkCancel() throws InterruptedException {
+		}
+
+		/**
+		 * The time since the last phase started belongs to it, the time before the first phase to the table
+		 * fingerprints which count as introspection
+		 */
+		private void endPhase() {
+			long millis = lap();
+			switch (phase++) {
+				case 0:
+				case 1:
+					introspectMillis += millis;
+					break;
+				case 2:
+					generateMillis += millis;
+					break;
+				default:
+					saveMillis += millis;
+			}
+		}
+
+		String summary(int exitCode, int tableCount) {
+			return String.format("result=%s exitCode=%d tables=%d loadConfigMillis=%d listTablesMillis=%d " +
+							"introspectMillis=%d generateMillis=%d saveMillis=%d totalMillis=%d",
+					exitCode == EXIT_OK ? "OK" : "FAILED", exitCode, tableCount, loadConfigMillis, listTablesMillis,
+					introspectMillis, generateMillis, saveMillis, System.currentTimeMillis() - startTime);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.zzg.mybatis.generator;
 
 import com.zzg.mybatis.generator.controller.MainUIController;
 import com.zzg.mybatis.generator.util.ConfigHelper;
+import com.zzg.mybatis.generator.util.ConnectionPool;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -35,6 +36,12 @@ public class MainUI extends Application {
 		controller.setPrimaryStage(primaryStage);
 	}
 
+	@Override
+	public void stop() throws Exception {
+		ConnectionPool.shutdown();
+		super.stop();
+	}
+
 	public static void main(String[] args) {
 		String version = System.getProperty("java.version");
 		if (Integer.parseInt(version.substring(2, 3)) >= 8 && Integer.parseInt(version.substring(6)) >= 60) {
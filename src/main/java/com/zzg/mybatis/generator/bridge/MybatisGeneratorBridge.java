@@ -1,28 +1,41 @@
 package com.zzg.mybatis.generator.bridge;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
 import com.zzg.mybatis.generator.model.DatabaseConfig;
 import com.zzg.mybatis.generator.model.DbType;
+import com.zzg.mybatis.generator.model.PageCountMode;
 import com.zzg.mybatis.generator.model.GeneratorConfig;
 import com.zzg.mybatis.generator.plugins.DbRemarksCommentGenerator;
-import com.zzg.mybatis.generator.util.ConfigHelper;
+import com.zzg.mybatis.generator.template.TemplateEngine;
 import com.zzg.mybatis.generator.util.DbUtil;
+import com.zzg.mybatis.generator.util.GenerationManifest;
 import com.zzg.mybatis.generator.util.MyStringUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.mybatis.generator.api.*;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.Element;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 import org.mybatis.generator.config.*;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Resource;
 import java.io.*;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The bridge between GUI and the mybatis generator. All the operation to  mybatis generator should proceed through this
@@ -34,6 +47,27 @@ public class MybatisGeneratorBridge {
 
 	private static final Logger _LOG = LoggerFactory.getLogger(MybatisGeneratorBridge.class);
 
+    private static final int DEFAULT_IO_THREADS = 4;
+
+    /**
+     * templates of the generated files, part of the fingerprint of every table
+     */
+    private static final String[] TEMPLATE_NAMES = {"Req.java.tpl", "MapperQuery.xml.tpl", "Controller.java.tpl",
+            "MapperMethods.java.tpl", "List.html.tpl", "List.js.tpl", "Create.js.tpl", "Service.java.tpl",
+            "ListItem.java.tpl", "StatementMetrics.java.tpl", "StatementMetricsInterceptor.java.tpl",
+            "MetricsController.java.tpl", "ReadReplica.java.tpl", "RoutingDataSource.java.tpl",
+            "ReadWriteRoutingInterceptor.java.tpl"};
+
+    /**
+     * manifest entry of the files generated once per project rather than per table
+     */
+    private static final String PROJECT_ENTRY = "<project>";
+
+    /**
+     * eviction policies of the MyBatis cache, the first is the default
+     */
+    private static final String[] CACHE_EVICTIONS = {"LRU", "FIFO", "SOFT", "WEAK"};
+
     private GeneratorConfig generatorConfig;
 
     private DatabaseConfig selectedDatabaseConfig;
@@ -44,6 +78,30 @@ public class MybatisGeneratorBridge {
 
     private List<ColumnOverride> columnOverrides;
 
+    /**
+     * columns of the single table left out of the slim list query
+     */
+    private List<String> unlistedColumns;
+
+    private List<String> tableNames;
+
+    private Semaphore ioPermits;
+
+    /**
+     * columns of the first unique index by table name, the upsert key of the tables without a primary key
+     */
+    private final Map<String, List<String>> uniqueIndexColumns = new HashMap<>();
+
+    /**
+     * indexes by table name, the query filters are generated for the indexed columns
+     */
+    private final Map<String, Map<String, List<String>>> tableIndexes = new HashMap<>();
+
+    /**
+     * notes of the run for the user, such as the filters left out for want of an index
+     */
+    private final List<String> report = Collections.synchronizedList(new ArrayList<>());
+
     public MybatisGeneratorBridge() {
     }
 
@@ -55,67 +113,22 @@ public class MybatisGeneratorBridge {
         this.selectedDatabaseConfig = databaseConfig;
     }
 
+    /**
+     * Generate all the given tables in one run instead of the single table of the generator config
+     */
+    public void setTableNames(List<String> tableNames) {
+        this.tableNames = tableNames;
+    }
+
     public void generate() throws Exception {
         Configuration configuration = new Configuration();
         Context context = new Context(ModelType.CONDITIONAL);
         configuration.addContext(context);
         context.addProperty("javaFileEncoding", "UTF-8");
-	    String connectorLibPath = ConfigHelper.findConnectorLibPath(selectedDatabaseConfig.getDbType());
-	    _LOG.info("connectorLibPath: {}", connectorLibPath);
-	    configuration.addClasspathEntry(connectorLibPath);
-        // Table configuration
-        TableConfiguration tableConfig = new TableConfiguration(context);
-        tableConfig.setTableName(generatorConfig.getTableName());
-        tableConfig.setDomainObjectName(generatorConfig.getDomainObjectName());
-        if(!generatorConfig.isUseExampe()) {
-            tableConfig.setUpdateByExampleStatementEnabled(false);
-            tableConfig.setCountByExampleStatementEnabled(false);
-            tableConfig.setDeleteByExampleStatementEnabled(false);
-            tableConfig.setSelectByExampleStatementEnabled(false);
-        }
-
-	    if (DbType.MySQL.name().equals(selectedDatabaseConfig.getDbType())) {
-		    tableConfig.setSchema(selectedDatabaseConfig.getSchema());
-	    } else {
-            tableConfig.setCatalog(selectedDatabaseConfig.getSchema());
-	    }
-
-        // 针对 postgresql 单独配置
-        if (DbType.valueOf(selectedDatabaseConfig.getDbType()).getDriverClass() == "org.postgresql.Driver") {
-            tableConfig.setDelimitIdentifiers(true);
-        }
-
-        //添加GeneratedKey主键生成
-		if (StringUtils.isNoneEmpty(generatorConfig.getGenerateKeys())) {
-			tableConfig.setGeneratedKey(new GeneratedKey(generatorConfig.getGenerateKeys(), selectedDatabaseConfig.getDbType(), true, null));
-		}
-
-        if (generatorConfig.getMapperName() != null) {
-            tableConfig.setMapperName(generatorConfig.getMapperName());
-        }
-        // add ignore columns
-        if (ignoredColumns != null) {
-            ignoredColumns.stream().forEach(ignoredColumn -> {
-                tableConfig.addIgnoredColumn(ignoredColumn);
-            });
-        }
-        if (columnOverrides != null) {
-            columnOverrides.stream().forEach(columnOverride -> {
-                tableConfig.addColumnOverride(columnOverride);
-            });
-        }
-        if (generatorConfig.isUseActualColumnNames()) {
-			tableConfig.addProperty("useActualColumnNames", "true");
-        }
-        JDBCConnectionConfiguration jdbcConfig = new JDBCConnectionConfiguration();
-        // http://www.mybatis.org/generator/usage/mysql.html
-        if (DbType.MySQL.name().equals(selectedDatabaseConfig.getDbType())) {
-	        jdbcConfig.addProperty("nullCatalogMeansCurrent", "true");
-        }
-        jdbcConfig.setDriverClass(DbType.valueOf(selectedDatabaseConfig.getDbType()).getDriverClass());
-        jdbcConfig.setConnectionURL(DbUtil.getConnectionUrlWithSchema(selectedDatabaseConfig));
-        jdbcConfig.setUserId(selectedDatabaseConfig.getUsername());
-        jdbcConfig.setPassword(selectedDatabaseConfig.getPassword());
+        // introspect over the pooled connection of the selected database
+        ConnectionFactoryConfiguration connectionFactoryConfig = new ConnectionFactoryConfiguration();
+        connectionFactoryConfig.setConfigurationType(PooledConnectionFactory.class.getName());
+        connectionFactoryConfig.addProperty(PooledConnectionFactory.DATABASE_CONFIG, JSON.toJSONString(selectedDatabaseConfig));
         // java model
         JavaModelGeneratorConfiguration modelConfig = new JavaModelGeneratorConfiguration();
         modelConfig.setTargetPackage(generatorConfig.getModelPackage());
@@ -132,9 +145,39 @@ public class MybatisGeneratorBridge {
 
 
         context.setId("myid");
-        context.addTableConfiguration(tableConfig);
-        context.setJdbcConnectionConfiguration(jdbcConfig);
-        context.setJdbcConnectionConfiguration(jdbcConfig);
+        List<TableConfiguration> tableConfigs = new ArrayList<>();
+        if (tableNames != null && !tableNames.isEmpty()) {
+            for (String name : tableNames) {
+                tableConfigs.add(createTableConfiguration(context, name, MyStringUtils.dbStringToCamelStyle(name), false));
+            }
+        } else {
+            tableConfigs.add(createTableConfiguration(context, generatorConfig.getTableName(), generatorConfig.getDomainObjectName(), true));
+        }
+        // skip the tables generated before from the same structure and options, unless their files were touched since
+        Map<String, GenerationManifest.TableEntry> previousEntries = generatorConfig.isRegenerateAll()
+                ? Collections.<String, GenerationManifest.TableEntry>emptyMap()
+                : GenerationManifest.load(selectedDatabaseConfig);
+        Map<String, String> fingerprints = getTableFingerprints(tableConfigs);
+        int unchangedTables = 0;
+        for (TableConfiguration tableConfig : tableConfigs) {
+            GenerationManifest.TableEntry previous = previousEntries.get(tableConfig.getTableName());
+            String fingerprint = fingerprints.get(tableConfig.getTableName());
+            if (previous != null && fingerprint != null && fingerprint.equals(previous.getFingerprint())
+                    && previous.matchesFiles()) {
+                _LOG.info("skip table {}, not changed since the last generation", tableConfig.getTableName());
+                unchangedTables++;
+                continue;
+            }
+            context.addTableConfiguration(tableConfig);
+        }
+        if (context.getTableConfigurations().isEmpty()) {
+            _LOG.info("all {} tables not changed, nothing to generate", tableConfigs.size());
+            if (progressCallback != null) {
+                progressCallback.done();
+            }
+            return;
+        }
+        context.setConnectionFactoryConfiguration(connectionFactoryConfig);
         context.setJavaModelGeneratorConfiguration(modelConfig);
         context.setSqlMapGeneratorConfiguration(mapperConfig);
         context.setJavaClientGeneratorConfiguration(daoConfig);
@@ -184,57 +227,443 @@ public class MybatisGeneratorBridge {
         Set<String> contexts = new HashSet<>();
         ShellCallback shellCallback = new DefaultShellCallback(true); // override=true
         MyBatisGenerator myBatisGenerator = new MyBatisGenerator(configuration, shellCallback, warnings);
-        myBatisGenerator.generate(progressCallback, contexts, fullyqualifiedTables);
+        // the files are written per table below, where unchanged ones are left alone
+        myBatisGenerator.generate(progressCallback == null ? null : new GeneratorPhaseCallback(progressCallback),
+                contexts, fullyqualifiedTables, false);
+        for (String warning : warnings) {
+            _LOG.warn(warning);
+        }
 
         //generate controller,js,html add by chinaedison
-        List<GeneratedJavaFile> list = myBatisGenerator.getGeneratedJavaFiles();
+        Map<String, GeneratedJavaFile> javaFiles = new HashMap<>();
+        for (GeneratedJavaFile javaFile : myBatisGenerator.getGeneratedJavaFiles()) {
+            javaFiles.put(javaFile.getCompilationUnit().getType().getFullyQualifiedName(), javaFile);
+        }
+        Map<String, GeneratedXmlFile> xmlFiles = new HashMap<>();
+        for (GeneratedXmlFile xmlFile : myBatisGenerator.getGeneratedXmlFiles()) {
+            xmlFiles.put(xmlFile.getTargetPackage() + "/" + xmlFile.getFileName(), xmlFile);
+        }
 
-        List<GeneratedXmlFile> xmllist = myBatisGenerator.getGeneratedXmlFiles();
+        // one pass of post processing and saving per introspected table, all tables share the context introspected above
+        Map<String, GenerationManifest.TableEntry> generatedEntries = new ConcurrentHashMap<>();
+        List<Callable<Void>> tableTasks = new ArrayList<>();
+        for (IntrospectedTable introspectedTable : getIntrospectedTables(context)) {
+            tableTasks.add(() -> {
+                String taskName = "保存: " + introspectedTable.getFullyQualifiedTable();
+                if (progressCallback != null) {
+                    // queued tables are skipped once cancelled
+                    progressCallback.checkCancel();
+                    progressCallback.startTask(taskName);
+                }
+                String tableName = introspectedTable.getTableConfiguration().getTableName();
+                TableWriter writer = new TableWriter(previousEntries.get(tableName));
+                writeModelFiles(introspectedTable, javaFiles, shellCallback, writer);
+                generateTableArtifacts(introspectedTable, javaFiles, xmlFiles, shellCallback, modelConfig, daoConfig, writer);
+                String fingerprint = fingerprints.get(tableName);
+                if (fingerprint != null) {
+                    writer.entry.setFingerprint(fingerprint);
+                    generatedEntries.put(tableName, writer.entry);
+                }
+                if (progressCallback instanceof TaskProgressCallback) {
+                    ((TaskProgressCallback) progressCallback).finishTask(taskName);
+                }
+                return null;
+            });
+        }
+        if (progressCallback != null) {
+            // MyBatis Generator doesn't save the files, this pass is the save phase
+            progressCallback.saveStarted(tableTasks.size());
+        }
+        try {
+            runTableTasks(tableTasks);
+            if (generatorConfig.isStatementMetrics() || generatorConfig.isReadWriteSplit()) {
+                writeProjectFiles(modelConfig, shellCallback, previousEntries, generatedEntries);
+            }
+        } finally {
+            // tables finished before a failure or cancel are not generated again next time
+            GenerationManifest.save(selectedDatabaseConfig, generatedEntries);
+        }
+        _LOG.info("generated {} tables, {} not changed", tableTasks.size(), unchangedTables);
+        if (progressCallback != null) {
+            progressCallback.done();
+        }
+    }
 
-        GeneratedJavaFile entityFile = list.get(0);
-        String fileName = entityFile.getFileName().replace(".java", "");
-        String str = "package " + modelConfig.getTargetPackage() + ";\n"
-            + "public class " + fileName + "Req extends " + fileName + " {\n"
-            + "    private Long[] idList;\n"
-            + "    private int start;\n"
-            + "    private int limit;\n"
-            + "    public int getStart() {\n"
-            + "        return start;\n"
-            + "    }\n"
-            + "    public void setStart(int start) {\n"
-            + "        this.start = start;\n"
-            + "    }\n"
-            + "    public int getLimit() {\n"
-            + "        return limit;\n"
-            + "    }\n"
-            + "    public void setLimit(int limit) {\n"
-            + "        this.limit = limit;\n"
-            + "    }\n"
-            + "    public Long[] getIdList() {\n"
-            + "        return idList;\n" +
-                "    }\n" +
-                "\n" +
-                "    public void setIdList(Long[] idList) {\n" +
-                "        this.idList = idList;\n" +
-                "    }"
-            + "}\n";
-
-        String fileReq = fileName + "Req";
-        File file = new File(modelConfig.getTargetProject() + "\\" + fileReq + ".java");
-        if (null != str && !"".equals(str)) {
-            try {
-                FileWriter fw = new FileWriter(file);
-                fw.write(str);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+    /**
+     * Write the files shared by all the tables, the statement metrics interceptor with its registry and endpoint
+     * and the read/write routing data source with its interceptor. They are recorded in the manifest like a table, so unchanged files are left alone.
+     */
+    private void writeProjectFiles(JavaModelGeneratorConfiguration modelConfig, ShellCallback shellCallback,
+                                   Map<String, GenerationManifest.TableEntry> previousEntries,
+                                   Map<String, GenerationManifest.TableEntry> generatedEntries) throws Exception {
+        File modelDir = shellCallback.getDirectory(modelConfig.getTargetProject(), modelConfig.getTargetPackage());
+        Map<String, Object> model = new HashMap<>();
+        model.put("modelPackage", modelConfig.getTargetPackage());
+        long slowQueryMillis = NumberUtils.toLong(StringUtils.trim(generatorConfig.getSlowQueryMillis()));
+        model.put("slowQueryMillis", slowQueryMillis > 0 ? slowQueryMillis : 1000);
+        // a zero window is allowed, the reads right after a write then go to the replica too
+        model.put("stickyMillis", Math.max(0, NumberUtils.toLong(StringUtils.trim(generatorConfig.getStickyMillis()), 3000)));
+        TableWriter writer = new TableWriter(previousEntries.get(PROJECT_ENTRY));
+        if (generatorConfig.isStatementMetrics()) {
+            writer.write(new File(modelDir, "StatementMetrics.java"), render("StatementMetrics.java.tpl", model));
+            writer.write(new File(modelDir, "StatementMetricsInterceptor.java"),
+                    render("StatementMetricsInterceptor.java.tpl", model));
+            writer.write(new File(modelDir, "MetricsController.java"), render("MetricsController.java.tpl", model));
+        }
+        if (generatorConfig.isReadWriteSplit()) {
+            writer.write(new File(modelDir, "ReadReplica.java"), render("ReadReplica.java.tpl", model));
+            writer.write(new File(modelDir, "RoutingDataSource.java"), render("RoutingDataSource.java.tpl", model));
+            writer.write(new File(modelDir, "ReadWriteRoutingInterceptor.java"),
+                    render("ReadWriteRoutingInterceptor.java.tpl", model));
+        }
+        writer.entry.setFingerprint(getOptionsFingerprint());
+        generatedEntries.put(PROJECT_ENTRY, writer.entry);
+    }
+
+    /**
+     * Fingerprint each table from its structure and the generator options, tables not found get no fingerprint
+     */
+    private Map<String, String> getTableFingerprints(List<TableConfiguration> tableConfigs) throws Exception {
+        String optionsFingerprint = getOptionsFingerprint();
+        Map<String, String> fingerprints = new HashMap<>();
+        Connection connection = DbUtil.getConnection(selectedDatabaseConfig);
+        try {
+            for (TableConfiguration tableConfig : tableConfigs) {
+                if (progressCallback != null) {
+                    progressCallback.checkCancel();
+                }
+                String tableFingerprint = DbUtil.getTableFingerprint(connection, tableConfig.getCatalog(),
+                        tableConfig.getSchema(), tableConfig.getTableName(), tableConfig.isDelimitIdentifiers());
+                if (tableFingerprint != null) {
+                    Map<String, List<String>> indexes = getIndexes(connection, tableConfig);
+                    tableIndexes.put(tableConfig.getTableName(), indexes);
+                    tableFingerprint += "\n" + indexes;
+                }
+                if (tableFingerprint != null && generatorConfig.isUpsert()) {
+                    List<String> indexColumns = DbUtil.getUniqueIndexColumns(connection, tableConfig.getCatalog(),
+                            tableConfig.getSchema(), tableConfig.getTableName(), tableConfig.isDelimitIdentifiers());
+                    uniqueIndexColumns.put(tableConfig.getTableName(), indexColumns);
+                    tableFingerprint += "\n" + indexColumns;
+                }
+                if (tableFingerprint != null) {
+                    fingerprints.put(tableConfig.getTableName(),
+                            GenerationManifest.digest(optionsFingerprint + "\n" + tableFingerprint));
+                }
+            }
+        } finally {
+            connection.close();
+        }
+        return fingerprints;
+    }
+
+    /**
+     * @return null if the driver can't list the indexes, all the filters are generated then
+     */
+    private Map<String, List<String>> getIndexes(Connection connection, TableConfiguration tableConfig) {
+        try {
+            return DbUtil.getIndexColumns(connection, tableConfig.getCatalog(), tableConfig.getSchema(),
+                    tableConfig.getTableName(), tableConfig.isDelimitIdentifiers(), false);
+        } catch (SQLException e) {
+            _LOG.warn("get indexes of {} failed: {}", tableConfig.getTableName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fingerprint of everything besides the table structure that the generated files depend on: the generator
+     * options, the column customizations of a single table and the templates
+     */
+    private String getOptionsFingerprint() throws IOException {
+        boolean singleTable = tableNames == null || tableNames.isEmpty();
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter();
+        filter.getExcludes().addAll(Arrays.asList("name", "workerThreads", "ioThreads", "templateFolder", "regenerateAll"));
+        if (!singleTable) {
+            filter.getExcludes().addAll(Arrays.asList("tableName", "domainObjectName", "mapperName"));
+        }
+        StringBuilder text = new StringBuilder(JSON.toJSONString(generatorConfig, filter));
+        text.append('\n').append(selectedDatabaseConfig.getDbType());
+        if (singleTable) {
+            text.append('\n').append(JSON.toJSONString(ignoredColumns));
+            text.append('\n').append(JSON.toJSONString(columnOverrides));
+            text.append('\n').append(JSON.toJSONString(unlistedColumns));
+        }
+        for (String templateName : TEMPLATE_NAMES) {
+            text.append('\n').append(TemplateEngine.getTemplate(generatorConfig.getTemplateFolder(), templateName).getSource());
+        }
+        return GenerationManifest.digest(text.toString());
+    }
+
+    /**
+     * Passes the MyBatis Generator progress through, except its done() since the run goes on with the controller
+     * and page pass afterwards. MyBatis Generator runs its tasks one after another, a task finished when the next
+     * one starts.
+     */
+    private static class GeneratorPhaseCallback implements ProgressCallback {
+
+        private final ProgressCallback delegate;
+
+        private String runningTask;
+
+        GeneratorPhaseCallback(ProgressCallback delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void introspectionStarted(int totalTasks) {
+            finishRunningTask();
+            delegate.introspectionStarted(totalTasks);
+        }
+
+        @Override
+        public void generationStarted(int totalTasks) {
+            finishRunningTask();
+            delegate.generationStarted(totalTasks);
+        }
+
+        @Override
+        public void saveStarted(int totalTasks) {
+            finishRunningTask();
+            delegate.saveStarted(totalTasks);
+        }
+
+        @Override
+        public void startTask(String taskName) {
+            finishRunningTask();
+            delegate.startTask(taskName);
+            runningTask = taskName;
+        }
+
+        private void finishRunningTask() {
+            if (runningTask != null && delegate instanceof TaskProgressCallback) {
+                ((TaskProgressCallback) delegate).finishTask(runningTask);
+            }
+            runningTask = null;
+        }
+
+        @Override
+        public void done() {
+            finishRunningTask();
+        }
+
+        @Override
+        public void checkCancel() throws InterruptedException {
+            delegate.checkCancel();
+        }
+    }
+
+    /**
+     * Render and write the tables on a bounded worker pool. Every table writes its own files, and the tasks are
+     * awaited in table order so the first failure reported is always the same one. Progress and cancel checks
+     * stay on the calling thread.
+     */
+    private void runTableTasks(List<Callable<Void>> tableTasks) throws Exception {
+        int workerThreads = generatorConfig.getWorkerThreads() > 0 ? generatorConfig.getWorkerThreads()
+                : Runtime.getRuntime().availableProcessors();
+        workerThreads = Math.min(workerThreads, tableTasks.size());
+        int ioThreads = generatorConfig.getIoThreads() > 0 ? generatorConfig.getIoThreads() : DEFAULT_IO_THREADS;
+        ioPermits = new Semaphore(ioThreads);
+        _LOG.info("generate {} tables with {} worker threads, {} io threads", tableTasks.size(), workerThreads, ioThreads);
+        if (workerThreads <= 1) {
+            for (Callable<Void> tableTask : tableTasks) {
+                if (progressCallback != null) {
+                    progressCallback.checkCancel();
+                }
+                tableTask.call();
+            }
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "generator-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> tableTask : tableTasks) {
+                futures.add(executor.submit(tableTask));
+            }
+            for (Future<Void> future : futures) {
+                if (progressCallback != null) {
+                    progressCallback.checkCancel();
+                }
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                }
             }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Write one generated file, the number of files written at the same time is limited by the io threads
+     *
+     * @param encoding null for the platform encoding
+     */
+    private void writeFile(File file, String content, String encoding) throws IOException, InterruptedException {
+        ioPermits.acquire();
+        try (Writer writer = encoding == null ? new FileWriter(file)
+                : new OutputStreamWriter(new FileOutputStream(file), encoding)) {
+            writer.write(content);
+        } finally {
+            ioPermits.release();
         }
+    }
+
+    /**
+     * Writes the files of one table and records them for the manifest. A file with the same content as the last
+     * generation wrote, and not touched since, is left alone so IDEs and builds don't see a change.
+     */
+    private class TableWriter {
+
+        private final GenerationManifest.TableEntry previous;
+
+        private final GenerationManifest.TableEntry entry = new GenerationManifest.TableEntry();
+
+        TableWriter(GenerationManifest.TableEntry previous) {
+            this.previous = previous;
+        }
+
+        void write(File file, String content) throws IOException, InterruptedException {
+            write(file, content, null);
+        }
+
+        void write(File file, String content, String encoding) throws IOException, InterruptedException {
+            String path = file.getAbsolutePath();
+            String hash = GenerationManifest.digest(content);
+            GenerationManifest.FileEntry written = previous == null ? null : previous.getFiles().get(path);
+            if (written == null || !hash.equals(written.getHash()) || !written.isUnchanged(file)) {
+                writeFile(file, content, encoding);
+                written = new GenerationManifest.FileEntry(hash, file);
+            }
+            entry.getFiles().put(path, written);
+        }
+
+        /**
+         * Write a file of MyBatis Generator as it is, in the encoding MyBatis Generator would write it in
+         */
+        void write(GeneratedFile generatedFile, ShellCallback shellCallback) throws Exception {
+            File directory = shellCallback.getDirectory(generatedFile.getTargetProject(), generatedFile.getTargetPackage());
+            String encoding = generatedFile instanceof GeneratedJavaFile ? ((GeneratedJavaFile) generatedFile).getFileEncoding()
+                    : "UTF-8";
+            write(new File(directory, generatedFile.getFileName()), generatedFile.getFormattedContent(), encoding);
+        }
+    }
+
+    /**
+     * Build the table configuration of one table. Customized columns and mapper name are only applied when
+     * generating a single table, since they are chosen for the table selected in the UI.
+     */
+    private TableConfiguration createTableConfiguration(Context context, String tableName, String domainObjectName,
+                                                        boolean singleTable) {
+        TableConfiguration tableConfig = new TableConfiguration(context);
+        tableConfig.setTableName(tableName);
+        tableConfig.setDomainObjectName(domainObjectName);
+        if(!generatorConfig.isUseExampe()) {
+            tableConfig.setUpdateByExampleStatementEnabled(false);
+            tableConfig.setCountByExampleStatementEnabled(false);
+            tableConfig.setDeleteByExampleStatementEnabled(false);
+            tableConfig.setSelectByExampleStatementEnabled(false);
+        }
+
+	    if (DbType.MySQL.name().equals(selectedDatabaseConfig.getDbType())) {
+		    tableConfig.setSchema(selectedDatabaseConfig.getSchema());
+	    } else {
+            tableConfig.setCatalog(selectedDatabaseConfig.getSchema());
+	    }
+
+        // 针对 postgresql 单独配置
+        if (DbType.valueOf(selectedDatabaseConfig.getDbType()).getDriverClass() == "org.postgresql.Driver") {
+            tableConfig.setDelimitIdentifiers(true);
+        }
+
+        //添加GeneratedKey主键生成
+		if (StringUtils.isNoneEmpty(generatorConfig.getGenerateKeys())) {
+			tableConfig.setGeneratedKey(new GeneratedKey(generatorConfig.getGenerateKeys(), selectedDatabaseConfig.getDbType(), true, null));
+		}
+
+        if (generatorConfig.isUseActualColumnNames()) {
+			tableConfig.addProperty("useActualColumnNames", "true");
+        }
+        if (!singleTable) {
+            return tableConfig;
+        }
+        if (generatorConfig.getMapperName() != null) {
+            tableConfig.setMapperName(generatorConfig.getMapperName());
+        }
+        // add ignore columns
+        if (ignoredColumns != null) {
+            ignoredColumns.stream().forEach(ignoredColumn -> {
+                tableConfig.addIgnoredColumn(ignoredColumn);
+            });
+        }
+        if (columnOverrides != null) {
+            columnOverrides.stream().forEach(columnOverride -> {
+                tableConfig.addColumnOverride(columnOverride);
+            });
+        }
+        return tableConfig;
+    }
+
+    /**
+     * The context keeps its introspected tables private, read them back after generation like the xml document below
+     */
+    @SuppressWarnings("unchecked")
+    private List<IntrospectedTable> getIntrospectedTables(Context context) throws Exception {
+        java.lang.reflect.Field tablesField = Context.class.getDeclaredField("introspectedTables");
+        tablesField.setAccessible(true);
+        List<IntrospectedTable> introspectedTables = (List<IntrospectedTable>) tablesField.get(context);
+        return introspectedTables == null ? Collections.<IntrospectedTable>emptyList() : introspectedTables;
+    }
+
+    /**
+     * Write the model classes of the table, the mapper files are written with their additions
+     */
+    private void writeModelFiles(IntrospectedTable introspectedTable, Map<String, GeneratedJavaFile> javaFiles,
+                                 ShellCallback shellCallback, TableWriter writer) throws Exception {
+        for (String type : new String[]{introspectedTable.getPrimaryKeyType(), introspectedTable.getBaseRecordType(),
+                introspectedTable.getRecordWithBLOBsType(), introspectedTable.getExampleType()}) {
+            GeneratedJavaFile javaFile = javaFiles.get(type);
+            if (javaFile != null) {
+                writer.write(javaFile, shellCallback);
+            }
+        }
+    }
+
+    /**
+     * Generate the Req, Controller, html and js files of one table, and add the query methods to its mapper files
+     */
+    private void generateTableArtifacts(IntrospectedTable introspectedTable, Map<String, GeneratedJavaFile> javaFiles,
+                                        Map<String, GeneratedXmlFile> xmlFiles, ShellCallback shellCallback,
+                                        JavaModelGeneratorConfiguration modelConfig,
+                                        JavaClientGeneratorConfiguration daoConfig, TableWriter writer) throws Exception {
+        GeneratedJavaFile entityFile = javaFiles.get(introspectedTable.getBaseRecordType());
+        if (entityFile == null) {
+            entityFile = javaFiles.get(introspectedTable.getPrimaryKeyType());
+        }
+        GeneratedJavaFile generatedMapperFile = javaFiles.get(introspectedTable.getMyBatis3JavaMapperType());
+        GeneratedXmlFile xmlFile = xmlFiles.get(introspectedTable.getMyBatis3XmlMapperPackage() + "/"
+                + introspectedTable.getMyBatis3XmlMapperFileName());
+        if (entityFile == null || generatedMapperFile == null || xmlFile == null) {
+            _LOG.warn("skip table {}, generated files not found", introspectedTable.getFullyQualifiedTable());
+            // the mapper files found are still saved as generated
+            if (generatedMapperFile != null) {
+                writer.write(generatedMapperFile, shellCallback);
+            }
+            if (xmlFile != null) {
+                writer.write(xmlFile, shellCallback);
+            }
+            return;
+        }
+        File modelDir = shellCallback.getDirectory(modelConfig.getTargetProject(), modelConfig.getTargetPackage());
+        String fileName = entityFile.getFileName().replace(".java", "");
+        String fileNameLower = MyStringUtils.toLowerCaseFirstOne(fileName);
 
         //modify xml, add query list method
-        GeneratedXmlFile xmlFile = xmllist.get(0);
 
         java.lang.reflect.Field documentField = GeneratedXmlFile.class.
                 getDeclaredField("document");
@@ -246,7 +675,11 @@ public class MybatisGeneratorBridge {
         XmlElement ele = (XmlElement) document.getRootElement().getElements().get(0);
 
         XmlElement ele2 = (XmlElement) document.getRootElement().getElements().get(2);
-        Map<String, String> properties = new HashMap<String, String>();
+        Map<String, IntrospectedColumn> columnsByProperty = new HashMap<>();
+        for (IntrospectedColumn column : introspectedTable.getAllColumns()) {
+            columnsByProperty.put(column.getJavaProperty(), column);
+        }
+        List<Map<String, Object>> columns = new ArrayList<>();
         for (Element element: ele.getElements()) {
             XmlElement xmlElement = (XmlElement) element;
             String key = "";
@@ -260,1031 +693,471 @@ public class MybatisGeneratorBridge {
                     value = attribute.getValue();
                 }
             }
-            properties.put(key, value);
-        }
-
-        String xmlString = "<select id=\"query" + fileName + "List\" resultMap=\"BaseResultMap\">\n" +
-                "    select\n" +
-                "    <include refid=\"Base_Column_List\" />\n" +
-                "" + ele2.getElements().get(2).getFormattedContent(2) + "\n" +
-                "    where 1 = 1\n";
-        for (String property: properties.keySet()) {
-            xmlString += "    <if test=\"" + property + " != null and " + property + " != ''\">\n" +
-                    "      and " + properties.get(property) + " = #{" + property + "}\n" +
-                    "    </if>\n";
-        }
-        xmlString += "    order by id desc limit #{start},#{limit}\n" +
-                "  </select>\n" +
-                "\n" +
-                "  <select id=\"query" + fileName + "Count\" resultType=\"java.lang.Integer\">\n" +
-                "    select\n" +
-                "    count(1)\n" +
-                "" + ele2.getElements().get(2).getFormattedContent(2) + "\n" +
-                "    where 1 = 1\n";
-        for (String property: properties.keySet()) {
-            xmlString += "    <if test=\"" + property + " != null and " + property + " != ''\">\n" +
-                    "      and " + properties.get(property) + " = #{" + property + "}\n" +
-                    "    </if>\n";
-        }
-        xmlString += "  </select></mapper>";
-
-        File mapperFile = new File(mapperConfig.getTargetProject() + "\\" + mapperConfig.getTargetPackage().replace(".", "\\") + "\\" + fileName + "Mapper.xml");
-        InputStream in = new FileInputStream(mapperFile);
-        String xmlStr = MyStringUtils.convertStreamToString(in);
-        xmlString = xmlStr.replace("</mapper>", "") + xmlString;
-        if (null != xmlString && !"".equals(xmlString)) {
-            try {
-                FileWriter fw = new FileWriter(mapperFile);
-                fw.write(xmlString);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+            Map<String, Object> column = new HashMap<>();
+            column.put("property", key);
+            column.put("column", value);
+            IntrospectedColumn introspectedColumn = columnsByProperty.get(key);
+            if (introspectedColumn != null) {
+                column.put("getter", JavaBeansUtil.getGetterMethodName(key, introspectedColumn.getFullyQualifiedJavaType()));
             }
+            column.put("first", columns.isEmpty());
+            columns.add(column);
         }
 
+        columns = getFilterColumns(introspectedTable, columns);
+        Set<String> filterProperties = new HashSet<>();
+        for (Map<String, Object> column : columns) {
+            filterProperties.add((String) column.get("property"));
+        }
+        Set<String> listedProperties = new HashSet<>();
 
-        String fileNameLower = MyStringUtils.toLowerCaseFirstOne(fileName);
-        String fileReqLower = MyStringUtils.toLowerCaseFirstOne(fileReq);
-        String controllerStr = "package " + modelConfig.getTargetPackage() + ";\n"
-                + "\nimport " + daoConfig.getTargetPackage() + "." + fileName +"Mapper;\n"
-                + "import " + modelConfig.getTargetPackage() +  "." + fileName + ";\n" +
-                "import " + modelConfig.getTargetPackage() +  "." + fileName + "Req;\n" +
-                "import com.tuniu.operation.platform.tsg.base.core.annotation.Json;\n" +
-                "import com.tuniu.operation.platform.tsg.base.core.utils.JsonUtil;\n" +
-                "import com.tuniu.operation.platform.tsg.base.core.utils.ResponseVo;\n" +
-                "import org.apache.commons.codec.binary.Base64;\n" +
-                "import org.slf4j.Logger;\n" +
-                "import org.slf4j.LoggerFactory;\n" +
-                "import org.springframework.stereotype.Controller;\n" +
-                "import org.springframework.web.bind.annotation.RequestMapping;\n" +
-                "import org.springframework.web.bind.annotation.RequestMethod;\n" +
-                "import org.springframework.web.bind.annotation.ResponseBody;\n" +
-                "\n" +
-                "import javax.annotation.Resource;\n" +
-                "import javax.servlet.http.HttpServletRequest;\n" +
-                "import javax.servlet.http.HttpServletResponse;\n" +
-                "import java.io.IOException;\n" +
-                "import java.io.PrintWriter;\n" +
-                "import java.util.HashMap;\n" +
-                "import java.util.List;\n" +
-                "import java.util.Map;\n" +
-                "\n" +
-                "@Controller\n" +
-                "@RequestMapping(\"/" + fileNameLower + "\")"
-                + "\npublic class " + fileName + "Controller" + " {\n"
-                + "    private static final Logger LOGGER = LoggerFactory.getLogger(" + fileName + "Controller.class);\n"
-                + "\n"
-                + "    @Resource\n"
-                + "    private "+ fileName +"Mapper " + fileNameLower + "Mapper;\n"
-                + "\n"
-                + "@RequestMapping(value = \"/query\", method = RequestMethod.GET)\n"
-                + "@ResponseBody\n"
-                + "public void query" + fileName + "List(@Json " + fileReq + " " + fileReqLower + ", HttpServletRequest request,\n"
-                + "                HttpServletResponse response) throws IOException {\n"
-                + "    PrintWriter writer = null;\n"
-                + "    ResponseVo responseVo = new ResponseVo();\n"
-                + "    response.setHeader(\"Access-Control-Allow-Origin\", \"*\");\n"
-                + "    writer = response.getWriter();\n"
-                + "    try {\n"
-                + "        LOGGER.info(\"query" + fileName + "List param:{}\", JsonUtil.toString(" + fileReqLower + "));\n"
-                + "        List<" + fileName + "> " + fileNameLower + "List = " + fileNameLower + "Mapper.query" + fileName + "List(" + fileReqLower + ");\n"
-                + "        int count = " + fileNameLower + "Mapper.query" + fileName + "Count(" + fileReqLower + ");\n"
-                + "        Map<String, Object> map = new HashMap<String, Object>();\n"
-                + "        map.put(\"count\", count);\n"
-                + "        map.put(\"rows\", " + fileNameLower + "List);\n"
-                + "        responseVo.setData(map);\n"
-                + "        responseVo.setSuccess(true);\n"
-                + "    } catch (Exception e) {\n"
-                + "        LOGGER.error(\"查询异常\", e);\n"
-                + "        responseVo.setSuccess(false);\n"
-                + "        responseVo.setMsg(\"查询异常\");\n"
-                + "    }\n"
-                + "    LOGGER.info(\"query" + fileName + "List result:{}\", JsonUtil.toString(responseVo));\n"
-                + "    writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes(\"utf-8\")));\n"
-                + "}\n";
-
-        controllerStr += "    @RequestMapping(value = \"/save\", method = RequestMethod.POST)\n" +
-                "    @ResponseBody\n" +
-                "    public void save" + fileName + "(@Json " + fileName + " " + fileNameLower + ", HttpServletRequest request,\n" +
-                "                                HttpServletResponse response) throws IOException {\n" +
-                "        PrintWriter writer = null;\n" +
-                "        ResponseVo responseVo = new ResponseVo();\n" +
-                "        response.setHeader(\"Access-Control-Allow-Origin\", \"*\");\n" +
-                "        writer = response.getWriter();\n" +
-                "        try {\n" +
-                "            LOGGER.info(\"save" + fileName + "'s param:{}\", JsonUtil.toString(" + fileNameLower + "));\n" +
-                "            int count = " + fileNameLower + "Mapper.insertSelective(" + fileNameLower + ");\n" +
-                "            responseVo.setData(count);\n" +
-                "            responseVo.setSuccess(true);\n" +
-                "        } catch (Exception e) {\n" +
-                "            LOGGER.error(\"保存异常\", e);\n" +
-                "            responseVo.setMsg(\"保存异常\");\n" +
-                "            responseVo.setSuccess(false);\n" +
-                "        }\n" +
-                "        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes(\"utf-8\")));\n" +
-                "    }\n";
-
-        controllerStr += "    @RequestMapping(value = \"/findById\", method = RequestMethod.POST)\n" +
-                "    @ResponseBody\n" +
-                "    public void find" + fileName + "ById(@Json " + fileName + " " + fileNameLower + ", HttpServletRequest request,\n" +
-                "                                     HttpServletResponse response) throws IOException {\n" +
-                "        PrintWriter writer = null;\n" +
-                "        ResponseVo responseVo = new ResponseVo();\n" +
-                "        response.setHeader(\"Access-Control-Allow-Origin\", \"*\");\n" +
-                "        writer = response.getWriter();\n" +
-                "        try {\n" +
-                "            " + fileName + " " + fileNameLower +"Entity = " + fileNameLower + "Mapper.selectByPrimaryKey(" + fileNameLower + ".getId());\n" +
-                "            responseVo.setData(" + fileNameLower + "Entity);\n" +
-                "            responseVo.setSuccess(true);\n" +
-                "        }catch (Exception e) {\n" +
-                "            LOGGER.error(\"查询单条记录异常\", e);\n" +
-                "            responseVo.setMsg(\"查询单条记录异常\");\n" +
-                "            responseVo.setSuccess(false);\n" +
-                "        }\n" +
-                "        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes(\"utf-8\")));\n" +
-                "    }\n";
-        controllerStr += "    @RequestMapping(value=\"/delete\", method = RequestMethod.POST)\n" +
-                "    @ResponseBody\n" +
-                "    public void delete" + fileName + "(@Json " + fileReq + " " + fileReqLower + ", HttpServletRequest request,\n" +
-                "                               HttpServletResponse response) throws IOException {\n" +
-                "        PrintWriter writer = null;\n" +
-                "        ResponseVo responseVo = new ResponseVo();\n" +
-                "        response.setHeader(\"Access-Control-Allow-Origin\", \"*\");\n" +
-                "        writer = response.getWriter();\n" +
-                "        try {\n" +
-                "            LOGGER.info(\"delete" + fileName + "'s param:{}\", JsonUtil.toString(" + fileReqLower + "));\n" +
-                "            Long[] idList = " + fileReqLower + ".getIdList();\n" +
-                "            for (Long id : idList) {\n" +
-                "                " + fileNameLower + "Mapper.deleteByPrimaryKey(id);\n" +
-                "            }\n" +
-                "            responseVo.setSuccess(true);\n" +
-                "        }catch (Exception e) {\n" +
-                "            LOGGER.error(\"删除异常\", e);\n" +
-                "            responseVo.setMsg(\"删除异常\");\n" +
-                "            responseVo.setSuccess(false);\n" +
-                "        }\n" +
-                "        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes(\"utf-8\")));\n" +
-                "    }\n";
-
-        controllerStr += "@RequestMapping(value=\"/update\", method = RequestMethod.POST)\n" +
-                "    @ResponseBody\n" +
-                "    public void update" + fileName + " (@Json " + fileName + " " + fileNameLower + ", HttpServletRequest request,\n" +
-                "                              HttpServletResponse response) throws IOException {\n" +
-                "        PrintWriter writer = null;\n" +
-                "        ResponseVo responseVo = new ResponseVo();\n" +
-                "        response.setHeader(\"Access-Control-Allow-Origin\", \"*\");\n" +
-                "        writer = response.getWriter();\n" +
-                "        try {\n" +
-                "            LOGGER.info(\"update" + fileName + "'s param:{}\", JsonUtil.toString(" + fileNameLower + "));\n" +
-                "            int count = " + fileNameLower + "Mapper.updateByPrimaryKeySelective(" + fileNameLower + ");\n" +
-                "            responseVo.setData(count);\n" +
-                "            responseVo.setSuccess(true);\n" +
-                "        } catch (Exception e) {\n" +
-                "            LOGGER.error(\"修改异常\", e);\n" +
-                "            responseVo.setMsg(\"修改异常\");\n" +
-                "            responseVo.setSuccess(false);\n" +
-                "        }\n" +
-                "        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes(\"utf-8\")));\n" +
-                "    }\n";
-
-        controllerStr += "}\n";
-        File controllerFile = new File(modelConfig.getTargetProject() + "\\" + fileName + "Controller.java");
-        if (null != controllerStr && !"".equals(controllerStr)) {
-            try {
-                FileWriter fw = new FileWriter(controllerFile);
-                fw.write(controllerStr);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+        // the field labels come from the first word of the column remarks, parsed once for all the pages
+        List<Map<String, Object>> formFields = new ArrayList<>();
+        // the search form only has the fields the list query filters on
+        List<Map<String, Object>> queryFields = new ArrayList<>();
+        List<Map<String, Object>> listFields = new ArrayList<>();
+        TopLevelClass topLevelClass = (TopLevelClass) entityFile.getCompilationUnit();
+        for (Field field : topLevelClass.getFields()) {
+            String fieldName = field.getName();
+            if (field.getJavaDocLines().size() < 2 || "delFlag".equals(fieldName)) {
+                continue;
+            }
+            String label = field.getJavaDocLines().get(1).replace(" * ", "");
+            if (label.indexOf(",") != -1) {
+                label = label.substring(0, label.indexOf(","));
+            }
+            if (label.indexOf(" ") != -1) {
+                label = label.substring(0, label.indexOf(" "));
+            }
+            Map<String, Object> templateField = new HashMap<>();
+            templateField.put("name", fieldName);
+            templateField.put("label", label);
+            boolean special = false;
+            for (String specialField : new String[]{"id", "addTime", "updateTime"}) {
+                boolean isSpecial = specialField.equals(fieldName);
+                templateField.put(specialField, isSpecial);
+                special |= isSpecial;
+            }
+            templateField.put("plain", !special);
+            listFields.add(templateField);
+            listedProperties.add(fieldName);
+            if (!special) {
+                formFields.add(templateField);
+                if (filterProperties.contains(fieldName)) {
+                    queryFields.add(templateField);
+                }
             }
         }
 
-        File mapperJavaFile = new File(daoConfig.getTargetProject() + "\\" + daoConfig.getTargetPackage().replace(".", "\\") + "\\" + fileName + "Mapper.java");
-        InputStream input = new FileInputStream(mapperJavaFile);
-        String javaStr = MyStringUtils.convertStreamToString(input);
-        javaStr = javaStr.substring(0, javaStr.length() - 2);
-        javaStr += "\n    java.util.List<" + fileName + "> query" + fileName + "List(" + fileName + "Req " + fileNameLower + "Req);\n" +
-                "\n" +
-                "    int query" + fileName + "Count(" + fileName + "Req " + fileNameLower + "Req);\n"
-                + "}";
-        if (null != javaStr && !"".equals(javaStr)) {
-            try {
-                FileWriter fw = new FileWriter(mapperJavaFile);
-                fw.write(javaStr);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+        // keyset paging seeks past the primary key of the last row of the previous page instead of skipping rows
+        List<Map<String, Object>> keyColumns = new ArrayList<>();
+        for (IntrospectedColumn column : introspectedTable.getPrimaryKeyColumns()) {
+            FullyQualifiedJavaType javaType = column.getFullyQualifiedJavaType();
+            String cursor = "last" + StringUtils.capitalize(column.getJavaProperty());
+            Map<String, Object> keyColumn = new HashMap<>();
+            keyColumn.put("column", MyBatis3FormattingUtilities.getEscapedColumnName(column));
+            keyColumn.put("property", column.getJavaProperty());
+            keyColumn.put("cursor", cursor);
+            keyColumn.put("cursorAccessor", StringUtils.capitalize(cursor));
+            keyColumn.put("javaType", javaType.isExplicitlyImported() ? javaType.getFullyQualifiedName() : javaType.getShortName());
+            keyColumn.put("getter", JavaBeansUtil.getGetterMethodName(column.getJavaProperty(), javaType));
+            keyColumn.put("first", keyColumns.isEmpty());
+            // the columns before this one stay equal when it decides the order
+            keyColumn.put("previous", new ArrayList<>(keyColumns));
+            keyColumns.add(keyColumn);
+        }
+        // selectByPrimaryKey takes the key class when there is one, the record extends it, or else each key column
+        StringBuilder primaryKeyArgs = new StringBuilder();
+        if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            primaryKeyArgs.append(fileNameLower);
+        } else {
+            for (Map<String, Object> keyColumn : keyColumns) {
+                if (primaryKeyArgs.length() > 0) {
+                    primaryKeyArgs.append(", ");
+                }
+                primaryKeyArgs.append(fileNameLower).append('.').append(keyColumn.get("getter")).append("()");
             }
         }
+        if (generatorConfig.isKeysetPaging() && keyColumns.isEmpty()) {
+            _LOG.warn("table {} has no primary key, keyset paging is not generated", introspectedTable.getFullyQualifiedTable());
+        }
 
-        String uedStr = "<!DOCTYPE HTML>\n" +
-                "<html>\n" +
-                "\n" +
-                "<head>\n" +
-                "    <meta http-equiv=\"Content-Type\" content=\"text/html; charset=utf-8\">\n" +
-                "    <title>查询</title>\n" +
-                "    <script type=\"text/javascript\" src=\"../../../jsrc/modules/importCss.js\"></script>\n" +
-                "    <link href=\"../css/reset.css\" rel=\"stylesheet\" type=\"text/css\">\n" +
-                "    <script type='text/javascript' src='../../../jsrc/modules/jquery-1.7.2.js'></script>\n" +
-                "    <script type=\"text/javascript\" src=\"../../../jsrc/modules/importJS.js\"></script>\n" +
-                "    <script type='text/javascript' src='../../../jsrc/modules/tn/TNQuoteGridPanel/TNQuoteGridPanel.js'></script>\n" +
-                "    <script type=\"text/javascript\" src=\"../../../jsrc/modules/tn/TNSearch/DynamicTNSearch.js\"></script>\n" +
-                "    <script>\n" +
-                "    $import(\"com.tuniu.portal.PortalApp\", function(PortalApp) {\n" +
-                "        $(function() {\n" +
-                "            PortalApp.getInstance().init(\""+ fileName + "List\", \"FLT\", \"NAP\");\n" +
-                "        });\n" +
-                "    });\n" +
-                "    </script>\n" +
-                "    <style>\n" +
-                "    .padding {\n" +
-                "        padding-left: 20px;\n" +
-                "    }\n" +
-                "    \n" +
-                "    html {\n" +
-                "        overflow-x: scroll !important;\n" +
-                "        min-width: 1360px;\n" +
-                "    }\n" +
-                "    \n" +
-                "    .select-medium {\n" +
-                "        height: 29px;\n" +
-                "        width: 154px;\n" +
-                "    }\n" +
-                "    \n" +
-                "    .input-mini-cell {\n" +
-                "        width: 65px;\n" +
-                "    }\n" +
-                "    \n" +
-                "    .tngpBody td {\n" +
-                "        font-family: Monaco;\n" +
-                "    }\n" +
-                "    \n" +
-                "    .addTr {\n" +
-                "        margin: 5px 0 5px 0;\n" +
-                "    }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "\n" +
-                "<body>\n" +
-                "    <header>\n" +
-                "        <ul class=\"breadcrumb\">\n" +
-                "            <li>\n" +
-                "                <a href=\"#\">首页</a>\n" +
-                "                <span class=\"divider\">/</span>\n" +
-                "            </li>\n" +
-                "            <li>\n" +
-                "                供应链系统\n" +
-                "                <span class=\"divider\">/</span>\n" +
-                "            </li>\n" +
-                "            <li>\n" +
-                "                资源子系统\n" +
-                "                <span class=\"divider\">/</span>\n" +
-                "            </li>\n" +
-                "            <li>\n" +
-                "                分销订单系统\n" +
-                "                <span class=\"divider\">/</span>\n" +
-                "            </li>\n" +
-                "            <li>列表</li>\n" +
-                "        </ul>\n" +
-                "    </header>\n" +
-                "    <div class=\"container-fluid\">\n" +
-                "        <fieldset>\n" +
-                "            <legend>查询</legend>\n" +
-                "            <div class=\"grid-info search\">\n" +
-                "                <form id=\"queryForm\">\n" +
-                "                    <table class=\"grid-table\">\n" +
-                "                        <tr>\n";
-        TopLevelClass topLevelClass = (TopLevelClass) entityFile.getCompilationUnit();
-        Map<String, String> fieldMap = new HashMap<String, String>();
-        for (Field field:topLevelClass.getFields()) {
-            String fieldName = field.getName();
-            System.out.print(fieldName);
-            if ("id".equals(fieldName) || "addTime".equals(fieldName) || "updateTime".equals(fieldName)
-                    || "delFlag".equals(fieldName)) {
+        PageCountMode pageCountMode = PageCountMode.of(generatorConfig.getPageCountMode());
+
+        // the slim list query reads the key and the fields the list page shows, never the BLOB columns
+        List<Map<String, Object>> slimColumns = new ArrayList<>();
+        boolean singleTable = tableNames == null || tableNames.isEmpty();
+        for (IntrospectedColumn column : introspectedTable.getAllColumns()) {
+            boolean key = introspectedTable.getPrimaryKeyColumns().contains(column);
+            if (column.isBLOBColumn() || !(key || listedProperties.contains(column.getJavaProperty()))) {
                 continue;
             }
-            if (field.getJavaDocLines().size() == 0) {
+            if (!key && singleTable && unlistedColumns != null && unlistedColumns.contains(column.getActualColumnName())) {
                 continue;
             }
+            FullyQualifiedJavaType javaType = column.getFullyQualifiedJavaType();
+            Map<String, Object> slimColumn = new HashMap<>();
+            slimColumn.put("column", MyBatis3FormattingUtilities.getEscapedColumnName(column));
+            slimColumn.put("resultColumn", MyBatis3FormattingUtilities.getRenamedColumnNameForResultMap(column));
+            slimColumn.put("property", column.getJavaProperty());
+            slimColumn.put("jdbcType", column.getJdbcTypeName());
+            slimColumn.put("javaType", javaType.isExplicitlyImported() ? javaType.getFullyQualifiedName() : javaType.getShortName());
+            slimColumn.put("getter", JavaBeansUtil.getGetterMethodName(column.getJavaProperty(), javaType));
+            slimColumn.put("setter", JavaBeansUtil.getSetterMethodName(column.getJavaProperty()));
+            slimColumn.put("key", key);
+            slimColumn.put("first", slimColumns.isEmpty());
+            slimColumns.add(slimColumn);
+        }
+        boolean slimList = generatorConfig.isSlimListQuery() && !slimColumns.isEmpty();
+        if (generatorConfig.isSlimListQuery() && slimColumns.isEmpty()) {
+            _LOG.warn("table {} has no primary key or listed field, the slim list query is not generated", introspectedTable.getFullyQualifiedTable());
+        }
 
-            String secondDocLine = field.getJavaDocLines().get(1);
-            secondDocLine = secondDocLine.replace(" * ", "");
-            if (secondDocLine.indexOf(",") != -1) {
-                secondDocLine = secondDocLine.substring(0, secondDocLine.indexOf(","));
-            }
-            if (secondDocLine.indexOf(" ") != -1) {
-                secondDocLine = secondDocLine.substring(0, secondDocLine.indexOf(" "));
+        // batch insert writes the columns of the plain insert, one VALUES row per record
+        DbType dbType = DbType.valueOf(selectedDatabaseConfig.getDbType());
+        List<Map<String, Object>> insertColumns = new ArrayList<>();
+        for (IntrospectedColumn column : ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns())) {
+            Map<String, Object> insertColumn = new HashMap<>();
+            insertColumn.put("column", MyBatis3FormattingUtilities.getEscapedColumnName(column));
+            insertColumn.put("value", MyBatis3FormattingUtilities.getParameterClause(column, "item."));
+            insertColumn.put("first", insertColumns.isEmpty());
+            insertColumns.add(insertColumn);
+        }
+        Map<String, Object> batchKey = null;
+        GeneratedKey generatedKey = introspectedTable.getGeneratedKey();
+        // only these drivers return the keys of every row of a multi-row insert
+        if (generatedKey != null && (dbType == DbType.MySQL || dbType == DbType.PostgreSQL)) {
+            IntrospectedColumn keyColumn = introspectedTable.getColumn(generatedKey.getColumn());
+            if (keyColumn != null) {
+                batchKey = new HashMap<>();
+                batchKey.put("property", keyColumn.getJavaProperty());
+                batchKey.put("column", keyColumn.getActualColumnName());
             }
+        }
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
 
-            fieldMap.put(field.getName(),secondDocLine);
-
-            uedStr += "                          <th class='padding'>" + secondDocLine + ":</th><td>\n" +
-                    "                                <input id=\"" + field.getName() + "\" name=\"" + field.getName() + "\" class=\"input-medium\" type=\"text\" style=\"padding-left:1px;padding-right:1px;\" />\n" +
-                    "                            </td>\n";
-        }
-        uedStr += "                        </tr>\n" +
-                "                    </table>\n" +
-                "                </form>\n" +
-                "                <a id=\"searchBtn\" class=\"btn btn-primary searchBtn\" style=\"margin:0 40px 10px 40px;\"><i class=\"icon-search\"></i> 搜索\n" +
-                "                </a>\n" +
-                "                <a id=\"clearBtn\" class=\"btn btn-primary\" style=\"margin:0 0 10px 20px;\"><i class=\"icon-trash\"></i> 清除筛选\n" +
-                "                </a>\n" +
-                "            </div>\n" +
-                "        </fieldset>\n" +
-                "        <fieldset>\n" +
-                "            <legend>列表</legend>\n" +
-                "            <div style=\"margin:0;padding:0\">\n" +
-                "                <table>\n" +
-                "                    <tr>\n" +
-                "                        <td>\n" +
-                "                            <a id=\"addBtn\" class=\"btn btn-tool\" style=\"margin-top:10px;\"> <i class=\"icon-plus\"></i> 新增\n" +
-                "                            </a>\n" +
-                "                        </td>\n" +
-                "                    </tr>\n" +
-                "                </table>\n" +
-                "            </div>\n" +
-                "            <div id=\"" + fileNameLower + "List\" style='margin-top:5px;'></div>\n" +
-                "        </fieldset>\n" +
-                "    </div>\n" +
-                "    <div id=\"createContent\" style=\"display:none;\">\n" +
-                "        <fieldset>\n" +
-                "            <legend>新增页面</legend>\n" +
-                "            <form autocomplete=\"off\">\n" +
-                "                <table id=\"detailInputs\" style=\"border-collapse:separate; border-spacing:10px;\">\n";
-
-        for (Field field:topLevelClass.getFields()) {
-            String fieldName = field.getName();
-            System.out.print(fieldName);
-            if ("id".equals(fieldName) || "addTime".equals(fieldName) || "updateTime".equals(fieldName)
-                    || "delFlag".equals(fieldName)) {
-                continue;
+        // upsert writes the key as well, it conflicts on the primary key or else on the first unique index
+        List<IntrospectedColumn> conflictColumns = new ArrayList<>(introspectedTable.getPrimaryKeyColumns());
+        if (conflictColumns.isEmpty() && generatorConfig.isUpsert()) {
+            List<String> indexColumns = uniqueIndexColumns.get(introspectedTable.getTableConfiguration().getTableName());
+            for (String indexColumn : indexColumns == null ? Collections.<String>emptyList() : indexColumns) {
+                IntrospectedColumn column = introspectedTable.getColumn(indexColumn);
+                if (column == null) {
+                    // an ignored column, the key is incomplete
+                    conflictColumns.clear();
+                    break;
+                }
+                conflictColumns.add(column);
             }
-            if (field.getJavaDocLines().size() == 0) {
-                continue;
+            if (conflictColumns.isEmpty()) {
+                _LOG.warn("table {} has no primary key or unique index, upsert is not generated", introspectedTable.getFullyQualifiedTable());
             }
-            String secondDocLine = field.getJavaDocLines().get(1);
-            secondDocLine = secondDocLine.replace(" * ", "");
-            if (secondDocLine.indexOf(",") != -1) {
-                secondDocLine = secondDocLine.substring(0, secondDocLine.indexOf(","));
+        }
+        List<Map<String, Object>> upsertColumns = new ArrayList<>();
+        List<Map<String, Object>> upsertInsertColumns = new ArrayList<>();
+        List<Map<String, Object>> updateColumns = new ArrayList<>();
+        for (IntrospectedColumn column : ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getAllColumns())) {
+            // the database makes the values of auto-increment columns, they are matched on but never updated,
+            // MySQL and SQLite make one for a null, PostgreSQL gets default and the MERGE statements leave them out
+            boolean generated = column.isAutoIncrement() || column.isIdentity();
+            Map<String, Object> upsertColumn = new HashMap<>();
+            upsertColumn.put("column", MyBatis3FormattingUtilities.getEscapedColumnName(column));
+            if (generated && dbType == DbType.PostgreSQL) {
+                upsertColumn.put("value", orDefault(column, ""));
+                upsertColumn.put("itemValue", orDefault(column, "item."));
+            } else {
+                upsertColumn.put("value", MyBatis3FormattingUtilities.getParameterClause(column));
+                upsertColumn.put("itemValue", MyBatis3FormattingUtilities.getParameterClause(column, "item."));
             }
-            if (secondDocLine.indexOf(" ") != -1) {
-                secondDocLine = secondDocLine.substring(0, secondDocLine.indexOf(" "));
+            upsertColumn.put("first", upsertColumns.isEmpty());
+            upsertColumns.add(upsertColumn);
+            if (!generated) {
+                Map<String, Object> insertColumn = new HashMap<>(upsertColumn);
+                insertColumn.put("first", upsertInsertColumns.isEmpty());
+                upsertInsertColumns.add(insertColumn);
             }
-            uedStr += "                    <tr>\n" +
-                    "                        <th>" + secondDocLine + ":</th>\n" +
-                    "                        <td>\n" +
-                    "                            <input type=\"text\" name=\"" + field.getName() + "\" id=\"" + field.getName() + "\" class=\"input-size validate\" placeholder=\"\" />\n" +
-                    "                        </td>\n" +
-                    "                    </tr>\n";
-        }
-
-        uedStr += "                </table>\n" +
-                "            </form>\n" +
-                "        </fieldset>\n" +
-                "    </div>\n" +
-                "    <footer></footer>\n" +
-                "</body>\n" +
-                "\n" +
-                "</html>";
-
-        File uedFile = new File(modelConfig.getTargetProject() + "\\" + fileName + "List.html");
-        if (null != uedStr && !"".equals(uedStr)) {
-            try {
-                FileWriter fw = new FileWriter(uedFile);
-                fw.write(uedStr);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+            if (!generated && !conflictColumns.contains(column)) {
+                Map<String, Object> updateColumn = new HashMap<>(upsertColumn);
+                updateColumn.put("first", updateColumns.isEmpty());
+                updateColumns.add(updateColumn);
             }
         }
+        List<Map<String, Object>> conflictKey = new ArrayList<>();
+        for (IntrospectedColumn column : conflictColumns) {
+            Map<String, Object> keyColumn = new HashMap<>();
+            keyColumn.put("column", MyBatis3FormattingUtilities.getEscapedColumnName(column));
+            keyColumn.put("getter", JavaBeansUtil.getGetterMethodName(column.getJavaProperty(), column.getFullyQualifiedJavaType()));
+            keyColumn.put("first", conflictKey.isEmpty());
+            conflictKey.add(keyColumn);
+        }
 
-        String listJsStr = "function " + fileName + "List(config) {\n" +
-                "    $.extend(this, config, {\n" +
-                "        noty: new Noty(),\n" +
-                "        ver: new Ver()\n" +
-                "    });\n" +
-                "    this.init();\n" +
-                "}\n" +
-                "\n" +
-                "$.extend(" + fileName + "List.prototype, {\n" +
-                "    init: function() {\n" +
-                "        $(document).ready(function() {\n" +
-                "            if (tn.Base64.decode(tn.cookie.get(\"honeydukesUname\")) == \"\" || tn.cookie.get(\"honeydukesUid\") == \"\") {\n" +
-                "                window.location.href = \"../../../login/welcome.html\";\n" +
-                "            }\n" +
-                "        });\n" +
-                "        //限制fieldset宽度\n" +
-                "        this.render.gridAuto.call(this);\n" +
-                "\n" +
-                "        var self = this;\n" +
-                "        //加载列表\n" +
-                "        var " + fileNameLower + "List = self." + fileNameLower + "List = new TNGP(self." + fileNameLower + "ListConf($(\"#" + fileNameLower + "List\"))).tngp();\n" +
-                "        //绑定页面事件\n" +
-                "        self.bindEvent.btnClick.call(self);\n" +
-                "        self.reloadList.call(self);\n" +
-                "    },\n" +
-                "\n" +
-                "\n" +
-                "    /**\n" +
-                "     * 页面渲染\n" +
-                "     */\n" +
-                "    render: {\n" +
-                "        //固定fieldset内列表宽度\n" +
-                "        gridAuto: function() {\n" +
-                "            var w = $(\".container-fluid\").width() - 40;\n" +
-                "            var gridBox = $(\".container-fluid\").find(\".grid-auto\");\n" +
-                "            gridBox.width(w);\n" +
-                "            $(window).resize(function() {\n" +
-                "                var w = $(\".container-fluid\").width() - 40;\n" +
-                "                var gridBox = $(\".container-fluid\").find(\".grid-auto\");\n" +
-                "                gridBox.width(w);\n" +
-                "            });\n" +
-                "        }\n" +
-                "    },\n" +
-                "\n" +
-                "\n" +
-                "    bindPageData: {\n" +
-                "        showSavePage: function(data) {\n" +
-                "            var self = this;\n" +
-                "            self.showContent = $(\"#createContent\").clone();\n" +
-                "            self.showWindow(\"" + fileName + "Create\", self, { \"operate\": \"add\" });\n" +
-                "        }\n" +
-                "    },\n" +
-                "\n" +
-                "    /**\n" +
-                "     * 页面事件绑定\n" +
-                "     */\n" +
-                "    bindEvent: {\n" +
-                "        btnClick: function() {\n" +
-                "            var self = this;\n" +
-                "            //查询按钮\n" +
-                "            $(\"#searchBtn\").unbind(\"click\").click(function(e) {\n" +
-                "                self.reloadList.call(self);\n" +
-                "            });\n" +
-                "            $(\"#clearBtn\").unbind(\"click\").click(function(e) {\n" +
-                "                self.clearFliterParam.call(self);\n" +
-                "            });\n" +
-                "            //新增按钮\n" +
-                "            $(\"#addBtn\").unbind(\"click\").click(function(e) {\n" +
-                "                self.bindPageData.showSavePage.call(self);\n" +
-                "            });\n" +
-                "        }\n" +
-                "    },\n" +
-                "\n" +
-                "    /**\n" +
-                "     * 列表\n" +
-                "     */\n" +
-                "    " + fileNameLower + "ListConf: function(element) {\n" +
-                "        var self = this;\n" +
-                "        var linkUrl = self.getAction().linkUrl;\n" +
-                "        var tableConfig = {\n" +
-                "            url: self.getAction().get" + fileName + "List,\n" +
-                "            type: \"GET\",\n" +
-                "            el: element,\n" +
-                "            colModel: [{\n" +
-                "                display: 'checkbox',\n" +
-                "                name: 'checkbox',\n" +
-                "                width: 20,\n" +
-                "                handler: function(v, data, n, tr, index) {\n" +
-                "                    n.html($(\"<input type='checkbox'/>\"));\n" +
-                "                }\n" +
-                "            },";
-        for (Field field:topLevelClass.getFields()) {
-            String fieldName = field.getName();
-            System.out.print(fieldName);
-            if (field.getJavaDocLines().size() == 0) {
-                continue;
-            }
-            String secondDocLine = field.getJavaDocLines().get(1);
-            secondDocLine = secondDocLine.replace(" * ", "");
-            if (secondDocLine.indexOf(",") != -1) {
-                secondDocLine = secondDocLine.substring(0, secondDocLine.indexOf(","));
+        Map<String, Object> model = new HashMap<>();
+        model.put("modelPackage", modelConfig.getTargetPackage());
+        model.put("daoPackage", daoConfig.getTargetPackage());
+        model.put("fileName", fileName);
+        model.put("fileNameLower", fileNameLower);
+        model.put("fromClause", ele2.getElements().get(2).getFormattedContent(2));
+        model.put("columns", columns);
+        model.put("formFields", formFields);
+        model.put("queryFields", queryFields);
+        model.put("listFields", listFields);
+        model.put("keyColumns", keyColumns);
+        model.put("primaryKeyArgs", primaryKeyArgs.toString());
+        model.put("keyset", generatorConfig.isKeysetPaging() && !keyColumns.isEmpty());
+        model.put("tableName", introspectedTable.getFullyQualifiedTable().getIntrospectedTableName());
+        model.put("countExact", pageCountMode == PageCountMode.Exact);
+        model.put("countHasMore", pageCountMode == PageCountMode.HasMore);
+        model.put("countCached", pageCountMode == PageCountMode.Cached);
+        // only MySQL keeps the row count of a table where the generated select can read it
+        model.put("tableStatistics", pageCountMode == PageCountMode.Cached && dbType == DbType.MySQL);
+        boolean batchInsert = generatorConfig.isBatchInsert() && !insertColumns.isEmpty();
+        // the batch update works row by row through updateByPrimaryKeySelective
+        boolean batchUpdate = generatorConfig.isBatchUpdate() && introspectedTable.getRules().generateUpdateByPrimaryKeySelective();
+        model.put("batchInsert", batchInsert);
+        model.put("batchUpdate", batchUpdate);
+        model.put("rowsField", batchInsert || batchUpdate);
+        boolean upsert = generatorConfig.isUpsert() && !conflictKey.isEmpty();
+        model.put("upsert", upsert);
+        model.put("upsertMySQL", dbType == DbType.MySQL);
+        model.put("upsertOnConflict", dbType == DbType.PostgreSQL || dbType == DbType.Sqlite);
+        model.put("upsertOracle", dbType == DbType.Oracle);
+        model.put("upsertSqlServer", dbType == DbType.SQL_Server);
+        model.put("upsertColumns", upsertColumns);
+        model.put("upsertInsertColumns", upsertInsertColumns);
+        model.put("updateColumns", updateColumns);
+        model.put("hasUpdateColumns", !updateColumns.isEmpty());
+        model.put("conflictKey", conflictKey);
+        model.put("upsertRows", getBatchInsertRows(dbType, upsertColumns.size()));
+        model.put("mysql", dbType == DbType.MySQL);
+        model.put("postgresql", dbType == DbType.PostgreSQL);
+        model.put("streamQuery", generatorConfig.isStreamQuery());
+        model.put("streamJson", generatorConfig.isStreamJson());
+        model.put("asyncQuery", generatorConfig.isAsyncQuery());
+        model.put("queryThreads", positiveOrDefault(generatorConfig.getQueryThreads(), 8));
+        model.put("queryQueueSize", positiveOrDefault(generatorConfig.getQueryQueueSize(), 100));
+        model.put("queryListTimeoutMillis", positiveOrDefault(generatorConfig.getQueryListTimeoutMillis(), 10000));
+        model.put("queryPageTimeoutMillis", positiveOrDefault(generatorConfig.getQueryPageTimeoutMillis(), 5000));
+        model.put("compactLog", generatorConfig.isCompactLog());
+        model.put("readWriteSplit", generatorConfig.isReadWriteSplit());
+        model.put("logSampleEvery", Math.max(1, NumberUtils.toInt(StringUtils.trim(generatorConfig.getLogSampleEvery()), 1)));
+        int logMaxLength = NumberUtils.toInt(StringUtils.trim(generatorConfig.getLogMaxLength()));
+        model.put("logMaxLength", logMaxLength > 0 ? logMaxLength : 500);
+        model.put("slimList", slimList);
+        model.put("slimColumns", slimColumns);
+        // the list endpoint reads the slim rows when there are, the full rows are only read by id then
+        model.put("listType", slimList ? fileName + "ListItem" : fileName);
+        model.put("listQuery", "query" + fileName + (slimList ? "ListSlim" : "List"));
+        model.put("fetchSize", getStreamFetchSize(dbType));
+        boolean cache = isCachedTable(introspectedTable.getTableConfiguration().getTableName());
+        model.put("cache", cache);
+        if (cache) {
+            String eviction = StringUtils.upperCase(StringUtils.trimToNull(generatorConfig.getCacheEviction()));
+            model.put("cacheEviction", Arrays.asList(CACHE_EVICTIONS).contains(eviction) ? eviction : CACHE_EVICTIONS[0]);
+            int cacheSize = NumberUtils.toInt(StringUtils.trim(generatorConfig.getCacheSize()));
+            model.put("cacheSize", cacheSize > 0 ? cacheSize : 1024);
+            long flushInterval = NumberUtils.toLong(StringUtils.trim(generatorConfig.getCacheFlushInterval()));
+            model.put("cacheFlushInterval", flushInterval > 0 ? flushInterval : null);
+            model.put("cacheReadOnly", generatorConfig.isCacheReadOnly());
+        }
+        model.put("batchRows", getBatchInsertRows(dbType, insertColumns.size()));
+        model.put("batchKey", batchKey);
+        model.put("insertAll", dbType == DbType.Oracle);
+        model.put("insertTable", introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        model.put("insertColumns", insertColumns);
+        // the ids of the request are longs, a composite key is still deleted row by row
+        List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+        model.put("deleteByIds", primaryKeyColumns.size() == 1);
+        if (primaryKeyColumns.size() == 1) {
+            model.put("idColumn", MyBatis3FormattingUtilities.getEscapedColumnName(primaryKeyColumns.get(0)));
+        }
+        model.put("deleteIdsPerStatement", getDeleteIdsPerStatement(dbType));
+        // the record with the BLOB columns holds all the inserted columns
+        model.put("recordType", recordType.getShortName().equals(fileName) ? fileName : recordType.getFullyQualifiedName());
+
+        writer.write(new File(modelDir, fileName + "Req.java"), render("Req.java.tpl", model));
+
+        File mapperFile = new File(shellCallback.getDirectory(xmlFile.getTargetProject(), xmlFile.getTargetPackage()), xmlFile.getFileName());
+        // start from the generated content rather than the file on disk
+        String xmlStr = xmlFile.getFormattedContent();
+        writer.write(mapperFile, xmlStr.replace("</mapper>", "") + render("MapperQuery.xml.tpl", model));
+
+        writer.write(new File(modelDir, fileName + "Controller.java"), render("Controller.java.tpl", model));
+        if (batchUpdate || upsert) {
+            writer.write(new File(modelDir, fileName + "Service.java"), render("Service.java.tpl", model));
+        }
+        if (slimList) {
+            writer.write(new File(modelDir, fileName + "ListItem.java"), render("ListItem.java.tpl", model));
+        }
+
+        File mapperJavaFile = new File(shellCallback.getDirectory(generatedMapperFile.getTargetProject(), generatedMapperFile.getTargetPackage()), generatedMapperFile.getFileName());
+        String javaStr = generatedMapperFile.getFormattedContent();
+        writer.write(mapperJavaFile, javaStr.substring(0, javaStr.lastIndexOf('}')) + render("MapperMethods.java.tpl", model));
+
+        writer.write(new File(modelConfig.getTargetProject(), fileName + "List.html"), render("List.html.tpl", model));
+        writer.write(new File(modelConfig.getTargetProject(), fileName + "List.js"), render("List.js.tpl", model));
+        writer.write(new File(modelConfig.getTargetProject(), fileName + "Create.js"), render("Create.js.tpl", model));
+    }
+
+    /**
+     * The columns of the query filters, in the order of the indexes that serve them. A filter on a column without an
+     * index scans the whole table, so it is only generated when the config asks for it. Both cases go to the report,
+     * as do the columns that only an index led by other columns covers.
+     */
+    private List<Map<String, Object>> getFilterColumns(IntrospectedTable introspectedTable, List<Map<String, Object>> columns) {
+        String tableName = introspectedTable.getTableConfiguration().getTableName();
+        Map<String, List<String>> indexes = tableIndexes.get(tableName);
+        if (indexes == null) {
+            return columns;
+        }
+        // the primary key first, sqlite doesn't list the rowid key among the indexes
+        List<List<String>> indexColumns = new ArrayList<>();
+        List<String> primaryKey = new ArrayList<>();
+        for (IntrospectedColumn column : introspectedTable.getPrimaryKeyColumns()) {
+            primaryKey.add(column.getActualColumnName());
+        }
+        indexColumns.add(primaryKey);
+        indexColumns.addAll(indexes.values());
+        // column name in lower case -> leading column of the first index it is in
+        Map<String, String> leadingColumns = new LinkedHashMap<>();
+        for (List<String> index : indexColumns) {
+            for (String column : index) {
+                String key = column.toLowerCase();
+                if (!leadingColumns.containsKey(key) || index.get(0).equalsIgnoreCase(column)) {
+                    leadingColumns.put(key, index.get(0));
+                }
             }
-            if (secondDocLine.indexOf(" ") != -1) {
-                secondDocLine = secondDocLine.substring(0, secondDocLine.indexOf(" "));
+        }
+        List<Map<String, Object>> filterColumns = new ArrayList<>();
+        List<String> unindexed = new ArrayList<>();
+        List<String> prefixed = new ArrayList<>();
+        for (String key : leadingColumns.keySet()) {
+            for (Map<String, Object> column : columns) {
+                if (key.equals(((String) column.get("column")).toLowerCase())) {
+                    filterColumns.add(column);
+                    if (!leadingColumns.get(key).equalsIgnoreCase((String) column.get("column"))) {
+                        prefixed.add(column.get("column") + "(" + leadingColumns.get(key) + ")");
+                    }
+                }
             }
-            if ("id".equals(fieldName)) {
-                listJsStr += "{\n" +
-                        "                display: '序号',\n" +
-                        "                name: 'id',\n" +
-                        "                width: 60,\n" +
-                        "                handler: function(v, data, n) {\n" +
-                        "                    n.html(\"<a style='cursor:pointer;'>\" + data.id + \"</a>\");\n" +
-                        "                    n.find('a').click(function() {\n" +
-                        "                        self.showContent = $(\"#createContent\").clone();\n" +
-                        "                        self.showWindow(\"" + fileName + "Create\", self, { \"operate\": \"view\", \"data\": data });\n" +
-                        "                    });\n" +
-                        "                }\n" +
-                        "            },";
-            } else if ("addTime".equals(fieldName)) {
-                listJsStr += "{\n" +
-                        "                display: '录入时间',\n" +
-                        "                name: 'addTime',\n" +
-                        "                width: 80,\n" +
-                        "                handler: function(v, data, n, i, row) {\n" +
-                        "                    var createAt = data.addTime;\n" +
-                        "                    if (createAt) {\n" +
-                        "                        var index = createAt.indexOf(\" \");\n" +
-                        "                        var date = createAt.substring(0, index);\n" +
-                        "                        var time = createAt.substring(index + 1, createAt.length);\n" +
-                        "                        var html = date + \"<br/>\" + time;\n" +
-                        "                        n.attr(\"title\", createAt);\n" +
-                        "                        n.html(html);\n" +
-                        "                    } else {\n" +
-                        "                        createAt = \"/\";\n" +
-                        "                        n.attr(\"title\", createAt);\n" +
-                        "                        n.html(createAt);\n" +
-                        "                    }\n" +
-                        "                }\n" +
-                        "            },";
-            } else if ("updateTime".equals(fieldName)) {
-                listJsStr += "{\n" +
-                        "                display: '更新时间',\n" +
-                        "                name: 'updateTime',\n" +
-                        "                width: 80,\n" +
-                        "                handler: function(v, data, n, i, row) {\n" +
-                        "                    var createAt = data.updateTime;\n" +
-                        "                    if (createAt) {\n" +
-                        "                        var index = createAt.indexOf(\" \");\n" +
-                        "                        var date = createAt.substring(0, index);\n" +
-                        "                        var time = createAt.substring(index + 1, createAt.length);\n" +
-                        "                        var html = date + \"<br/>\" + time;\n" +
-                        "                        n.attr(\"title\", createAt);\n" +
-                        "                        n.html(html);\n" +
-                        "                    } else {\n" +
-                        "                        createAt = \"/\";\n" +
-                        "                        n.attr(\"title\", createAt);\n" +
-                        "                        n.html(createAt);\n" +
-                        "                    }\n" +
-                        "                }\n" +
-                        "            },";
-            }else if ("delFlag".equals(fieldName)) {
-                continue;
-            } else {
-                listJsStr += "{\n                display: '" + secondDocLine + "',\n" +
-                        "                name: '" + field.getName() + "',\n" +
-                        "                width: 80,\n" +
-                        "                handler: function(v, data, n, i, row) {\n" +
-                        "\n" +
-                        "                }\n" +
-                        "            },";
+        }
+        for (Map<String, Object> column : columns) {
+            if (!leadingColumns.containsKey(((String) column.get("column")).toLowerCase())) {
+                unindexed.add((String) column.get("column"));
+                if (generatorConfig.isUnindexedFilters()) {
+                    filterColumns.add(column);
+                }
             }
         }
+        if (!unindexed.isEmpty()) {
+            report.add(tableName + (generatorConfig.isUnindexedFilters() ? ": 这些列没有索引, 按它们查询会扫描全表: "
+                    : ": 这些列没有索引, 没有生成查询条件: ") + String.join(", ", unindexed));
+        }
+        if (!prefixed.isEmpty()) {
+            report.add(tableName + ": 这些列要同时按括号中的列查询才能用到索引: " + String.join(", ", prefixed));
+        }
+        for (int i = 0; i < filterColumns.size(); i++) {
+            filterColumns.get(i).put("first", i == 0);
+        }
+        return filterColumns;
+    }
 
-
-            listJsStr += "{\n" +
-                    "                display: '操作',\n" +
-                    "                name: 'operate',\n" +
-                    "                width: 180,\n" +
-                    "                handler: function(v, data, n, i, row) {\n" +
-                    "                    //复制\n" +
-                    "                    var copy = $(\"<a><i class ='icon-share'></i>复制</a>\").click(function() {\n" +
-                    "                        self.showContent = $(\"#createContent\").clone();\n" +
-                    "                        self.showWindow(\"" + fileName + "Create\", self, { \"operate\": \"copy\", \"data\": data });\n" +
-                    "                    });\n" +
-                    "                    //编辑\n" +
-                    "                    var edit = $(\"<a><i class='icon-edit'></i>编辑</a>\").click(function() {\n" +
-                    "                        self.showContent = $(\"#createContent\").clone();\n" +
-                    "                        self.showWindow(\"" + fileName + "Create\", self, { \"operate\": \"edit\", \"data\": data });\n" +
-                    "                    });\n" +
-                    "                    //删除\n" +
-                    "                    var del = $(\"<a><i class ='icon-trash'></i>删除</a>\").click(function() {\n" +
-                    "                        self.delFun.call(self, row, data);\n" +
-                    "                    });\n" +
-                    "                    n.append(copy);\n" +
-                    "                    n.append(edit);\n" +
-                    "                    n.append(del);\n" +
-                    "                }\n" +
-                    "            }],\n" +
-                    "            showToggleBtn: false,\n" +
-                    "            height: \"auto\",\n" +
-                    "            autoload: false\n" +
-                    "        };\n" +
-                    "        return tableConfig;\n" +
-                    "    },\n" +
-                    "\n" +
-                    "\n" +
-                    "    buildQueryPram: function() {\n" +
-                    "        var self = this;\n" +
-                    "        var queryParam = self.util.form.get($(\".search\"));\n" +
-                    "        return queryParam;\n" +
-                    "    },\n" +
-                    "    /**\n" +
-                    "     * 用于加载列表数据的方法\n" +
-                    "     */\n" +
-                    "    reloadList: function() {\n" +
-                    "        var self = this;\n" +
-                    "        self." + fileNameLower + "List.reload(self.buildQueryPram());\n" +
-                    "    },\n" +
-                    "\n" +
-                    "    clearFliterParam: function() {\n" +
-                    "        $(\"input\").val(\"\");\n" +
-                    "    },\n" +
-                    "\n" +
-                    "    //单个删除方法\n" +
-                    "    delFun: function(row, data) {\n" +
-                    "        var self = this;\n" +
-                    "        var effectParam = [];\n" +
-                    "        effectParam.push(data.id);\n" +
-                    "        if (!effectParam) {\n" +
-                    "            return;\n" +
-                    "        }\n" +
-                    "        self.noty.confirm(\"您确定要进行删除操作吗？\", {\n" +
-                    "            type: \"btn btn-primary\",\n" +
-                    "            text: \"<i class='icon-ok'></i>确定\",\n" +
-                    "            click: function(noty) {\n" +
-                    "                tn.ajax.request({\n" +
-                    "                    type: \"POST\",\n" +
-                    "                    url: self.getAction().batchDelete,\n" +
-                    "                    data: {\n" +
-                    "                        idList: effectParam,\n" +
-                    "                        opUid: tn.cookie.get(\"honeydukesUid\"),\n" +
-                    "                        opName: Base64.decode(tn.cookie.get(\"honeydukesUname\"))\n" +
-                    "                    },\n" +
-                    "                    listener: {\n" +
-                    "                        success: function(json) {\n" +
-                    "                            if (json.success) {\n" +
-                    "                                self.noty.info(\"操作成功\");\n" +
-                    "                                setTimeout(function() { self.reloadList.call(self) }, 1000);\n" +
-                    "                            } else {\n" +
-                    "                                self.noty.info(\"操作失败\");\n" +
-                    "                            }\n" +
-                    "                        }\n" +
-                    "                    }\n" +
-                    "                });\n" +
-                    "                noty.close();\n" +
-                    "            }\n" +
-                    "        });\n" +
-                    "    },\n" +
-                    "\n" +
-                    "    /**\n" +
-                    "     * 批量删除方法\n" +
-                    "     */\n" +
-                    "    batchDelete: function() {\n" +
-                    "        var self = this;\n" +
-                    "        var batchEffectParam = self.getBatchParamIds();\n" +
-                    "        if (!batchEffectParam) {\n" +
-                    "            return;\n" +
-                    "        }\n" +
-                    "        self.noty.confirm(\"您确定要进行批量删除操作吗？\", {\n" +
-                    "            type: \"btn btn-primary\",\n" +
-                    "            text: \"<i class='icon-ok'></i>确定\",\n" +
-                    "            click: function(noty) {\n" +
-                    "                tn.ajax.request({\n" +
-                    "                    type: \"POST\",\n" +
-                    "                    url: self.getAction().batchDelete,\n" +
-                    "                    data: {\n" +
-                    "                        idList: batchEffectParam,\n" +
-                    "                        opUid: tn.cookie.get(\"honeydukesUid\"),\n" +
-                    "                        opName: Base64.decode(tn.cookie.get(\"honeydukesUname\"))\n" +
-                    "                    },\n" +
-                    "                    listener: {\n" +
-                    "                        success: function(json) {\n" +
-                    "                            if (json.success) {\n" +
-                    "                                self.noty.info(\"操作成功\");\n" +
-                    "                            } else {\n" +
-                    "                                self.noty.info(\"操作失败\");\n" +
-                    "                            }\n" +
-                    "                            setTimeout(function() { self.reloadList.call(self) }, 1000);\n" +
-                    "                        },\n" +
-                    "                        requestcomplete: function() {\n" +
-                    "                            $(\"#" + fileNameLower + "List input[type='checkbox']\").attr(\"checked\", false);\n" +
-                    "                        },\n" +
-                    "                        error: function() {\n" +
-                    "                            self.noty.error(\"接口调用异常\");\n" +
-                    "                        }\n" +
-                    "                    }\n" +
-                    "                });\n" +
-                    "                noty.close();\n" +
-                    "            }\n" +
-                    "        });\n" +
-                    "\n" +
-                    "    },\n" +
-                    "    //\n" +
-                    "    getBatchParamIds: function() {\n" +
-                    "        var self = this;\n" +
-                    "        var arr = this." + fileNameLower + "List.getCheckedRowsData();\n" +
-                    "        var ids = [];\n" +
-                    "        $.each(arr, function(i, item) {\n" +
-                    "            ids.push(item.id);\n" +
-                    "        });\n" +
-                    "        if (ids.length <= 0) {\n" +
-                    "            self.noty.error(\"请勾选\");\n" +
-                    "            return;\n" +
-                    "        }\n" +
-                    "        return ids;\n" +
-                    "    },\n" +
-                    "\n" +
-                    "    /**\n" +
-                    "     * 页面AJAX请求URL统一处理\n" +
-                    "     */\n" +
-                    "    getAction: function() {\n" +
-                    "        if (this.devcfg) {\n" +
-                    "            return {\n" +
-                    "                get" + fileName + "List: this.protectedSystem.server.ASR + \"" + fileNameLower + "/query\",\n" +
-                    "                batchDelete: this.protectedSystem.server.ASR + \"" + fileNameLower + "/delete\",\n" +
-                    "            };\n" +
-                    "        } else {\n" +
-                    "            return {\n" +
-                    "                get" + fileName + "List: this.protectedSystem.server.ASR + \"" + fileNameLower + "/query\",\n" +
-                    "                batchDelete: this.protectedSystem.server.ASR + \"" + fileNameLower + "/delete\",\n" +
-                    "            };\n" +
-                    "        }\n" +
-                    "    }\n" +
-                    "});\n";
-
-        File listJsFile = new File(modelConfig.getTargetProject() + "\\" + fileName + "List.js");
-        if (null != listJsStr && !"".equals(listJsStr)) {
-            try {
-                FileWriter fw = new FileWriter(listJsFile);
-                fw.write(listJsStr);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+    /**
+     * Whether the mapper of the table gets a second level cache, the cache tables of the config are matched by name
+     */
+    private boolean isCachedTable(String tableName) {
+        if (!generatorConfig.isMapperCache()) {
+            return false;
+        }
+        if (StringUtils.isBlank(generatorConfig.getCacheTables())) {
+            return true;
+        }
+        for (String cacheTable : generatorConfig.getCacheTables().split(",")) {
+            if (cacheTable.trim().equalsIgnoreCase(tableName)) {
+                return true;
             }
         }
+        return false;
+    }
 
-        String formJsStr = "function " + fileName + "Create(config, datas) {\n" +
-                "    var win;\n" +
-                "    var html = config.showContent;\n" +
-                "    html.show();\n" +
-                "    var $detailContent = config.showContent;\n" +
-                "    initWindow(datas);\n" +
-                "    \n" +
-                "    $detailContent.find(\"legend\").text(initFieldSet(datas));\n" +
-                "    var buttons = initWindowButtons(datas);\n" +
-                "    var title=initWindowTitle(datas);\n" +
-                "    win = new WinForm({\n" +
-                "        title: title,\n" +
-                "        node: html,\n" +
-                "        cancelText: '关闭',\n" +
-                "        css: {\n" +
-                "            top: \"50px\",\n" +
-                "            width: \"30%\",\n" +
-                "            left: \"35%\"\n" +
-                "        },\n" +
-                "        buttons: buttons\n" +
-                "    });\n" +
-                "    //最后时刻返回win对象\n" +
-                "    return win;\n" +
-                "    $.extend(this, config, {\n" +
-                "        noty: new Noty(),\n" +
-                "        ver: new Ver()\n" +
-                "    });\n" +
-                "    /**\n" +
-                "     *功能说明 初始化窗口\n" +
-                "     */\n" +
-                "    function initWindow(datas) {\n" +
-                "        if (datas.operate != \"add\") {\n" +
-                "            showData(datas.data);\n" +
-                "        }\n" +
-                "\n" +
-                "        if (datas.operate == \"edit\") {\n" +
-                "            $detailContent.find(\"input\").removeAttr(\"disabled\", true);\n" +
-                "        }\n" +
-                "        if (datas.operate == \"view\") {\n" +
-                "            $detailContent.find(\"input\").attr(\"disabled\", true);\n" +
-                "        } else {\n" +
-                "            bindBlurFunction();\n" +
-                "        }\n" +
-                "    }\n" +
-                "\n" +
-                "    function initWindowButtons(datas) {\n" +
-                "        var buttons = [{\n" +
-                "            name: \"<i class='icon-ok'></i>确认\",\n" +
-                "            class: \"btn btn-primary occupy trackAnaly_272\",\n" +
-                "            click: function() {\n" +
-                "                var errorItem = $(\".ver-error\");\n" +
-                "                if (errorItem.length < 1) {\n" +
-                "                    if (datas.operate == \"add\" || datas.operate == \"copy\") {\n" +
-                "                        save(datas);\n" +
-                "                    } else if (datas.operate == \"edit\") {\n" +
-                "                        update(datas);\n" +
-                "                    }\n" +
-                "                }\n" +
-                "            }\n" +
-                "        }, {\n" +
-                "            name: \"<i class='icon-refresh'></i>重置\",\n" +
-                "            class: \"btn btn-primary occupy trackAnaly_272\",\n" +
-                "            click: function() {\n" +
-                "                reset(datas);\n" +
-                "            }\n" +
-                "        }, {\n" +
-                "            name: \"<i class='icon-remove'></i>关闭\",\n" +
-                "            class: \"btn btn-danger\",\n" +
-                "            click: function() {\n" +
-                "                win.hide();\n" +
-                "            }\n" +
-                "        }];\n" +
-                "        var lastButtons = [];\n" +
-                "        if (datas.operate == \"edit\") {\n" +
-                "            lastButtons.push(buttons[0]);\n" +
-                "            lastButtons.push(buttons[2]);\n" +
-                "        } else if (datas.operate == \"view\") {\n" +
-                "        } else {\n" +
-                "            lastButtons = buttons;\n" +
-                "        }\n" +
-                "        return lastButtons;\n" +
-                "    }\n" +
-                "\n" +
-                "    /**\n" +
-                "     *功能说明 初始化窗口标题\n" +
-                "     */\n" +
-                "    function initWindowTitle(datas) {\n" +
-                "        var title = \"\";\n" +
-                "        if (datas.operate == \"add\") {\n" +
-                "            title += \"新增\";\n" +
-                "        } else if (datas.operate == \"edit\") {\n" +
-                "            title += \"编辑\";\n" +
-                "        } else if (datas.operate == \"view\") {\n" +
-                "            title += \"详情\";\n" +
-                "        }\n" +
-                "        return title;\n" +
-                "    }\n" +
-                "\n" +
-                "    function initFieldSet(datas) {\n" +
-                "        var title = \"\";\n" +
-                "        if (datas.operate == \"add\") {\n" +
-                "            title += \"新增页面\";\n" +
-                "        } else if (datas.operate == \"edit\") {\n" +
-                "            title += \"编辑页面\";\n" +
-                "        } else if (datas.operate == \"view\") {\n" +
-                "            title += \"详情页面\";\n" +
-                "        }\n" +
-                "        return title;\n" +
-                "    }\n" +
-                "\n" +
-                "    /**\n" +
-                "     *功能说明 给控件绑定blur事件\n" +
-                "     */\n" +
-                "    function bindBlurFunction() {\n" +
-                "        $detailContent.find(\".validate\").blur(function(e) {\n" +
-                "            var target = e.currentTarget;\n" +
-                "            $(target).removeAttr(\"data-original-title\").removeClass(\"ver-error\");\n" +
-                "            var val = $(target).val();\n" +
-                "            if (val == \"\") {\n" +
-                "                $(target).addClass(\"ver-error\").attr(\"data-original-title\", placeholder + \"不存在\").tooltip();\n" +
-                "            }\n" +
-                "        });\n" +
-                "    }\n" +
-                "\n" +
-                "    /**\n" +
-                "     *功能说明 重置\n" +
-                "     */\n" +
-                "    function reset(datas) {\n" +
-                "        //初始化控件提示状态\n" +
-                "        initControlsTipState();\n" +
-                "        $detailContent.find(\"input[type='text']\").val(\"\");\n" +
-                "    }\n" +
-                "\n" +
-                "    function save(datas) {\n" +
-                "        var submitData = createData(datas);\n" +
-                "        if (!checkDataValid()) {\n" +
-                "            return;\n" +
-                "        }\n" +
-                "        tn.ajax.request({\n" +
-                "            type: \"POST\",\n" +
-                "            data: submitData,\n" +
-                "            url: getAction().save,\n" +
-                "            listener: {\n" +
-                "                success: function(json) {\n" +
-                "                    if (tn.type.isNull(json) || !tn.type.isObject(json) || tn.type.isNull(json.success)) {\n" +
-                "                        //self.noty.error();\n" +
-                "                        alert(json.msg);\n" +
-                "                    }\n" +
-                "                    if (json.success === false) {\n" +
-                "                        //self.noty.error(json.msg);\n" +
-                "                        alert(json.msg);\n" +
-                "                    }\n" +
-                "                    if (json.success === true) {\n" +
-                "                        config.noty.info(\"保存成功\");\n" +
-                "                        closeWindow();\n" +
-                "                    }\n" +
-                "                }\n" +
-                "            }\n" +
-                "        });\n" +
-                "    }\n" +
-                "\n" +
-                "    function update(datas) {\n" +
-                "        var submitData = createData(datas);\n" +
-                "        tn.ajax.request({\n" +
-                "            type: \"POST\",\n" +
-                "            data: submitData,\n" +
-                "            url: getAction().update,\n" +
-                "            listener: {\n" +
-                "                success: function(json) {\n" +
-                "                    if (tn.type.isNull(json) || !tn.type.isObject(json) || tn.type.isNull(json.success)) {\n" +
-                "                        //self.noty.error();\n" +
-                "                        alert(json.msg);\n" +
-                "                    }\n" +
-                "                    if (json.success === false) {\n" +
-                "                        //self.noty.error(json.msg);\n" +
-                "                        alert(json.msg);\n" +
-                "                    }\n" +
-                "                    if (json.success === true) {\n" +
-                "                        config.noty.info(\"修改成功\");\n" +
-                "                        closeWindow();\n" +
-                "                    }\n" +
-                "                }\n" +
-                "            }\n" +
-                "        });\n" +
-                "    }\n" +
-                "\n" +
-                "    /*功能说明 关闭窗口\n" +
-                "     */\n" +
-                "    function closeWindow() {\n" +
-                "        win.hide();\n" +
-                "        config.reloadList.call(config);\n" +
-                "    }\n" +
-                "\n" +
-                "\n" +
-                "    /**\n" +
-                "     *功能说明 页面显示数据\n" +
-                "     */\n" +
-                "    function showData(data) {\n";
-        for (String field: fieldMap.keySet()) {
-            formJsStr += "        $detailContent.find(\"input[name='" + field + "']\").val(data." + field + ");\n";
-        }
-
-        formJsStr += "    }\n" +
-                "\n" +
-                "    function checkDataValid(){\n";
-
-        for (String field: fieldMap.keySet()) {
-            formJsStr += "        var " + field + " = $detailContent.find(\"input[name='" + field + "']\").val();\n" +
-                         "        if (" + field + " == \"\") {\n" +
-                         "            $detailContent.find(\"input[name='" + field + "']\").addClass(\"ver-error\").attr(\"data-original-title\",\"" + fieldMap.get(field) + "不能为空\").tooltip();\n" +
-                         "        }\n";
-        }
-
-        formJsStr +=  "        if ($detailContent.find(\".ver-error\").length>0) {\n" +
-                "            return false;\n" +
-                "        }\n" +
-                "        return true;\n" +
-                "    }\n" +
-                "\n" +
-                "    /**\n" +
-                "     *功能说明 构造保存数据\n" +
-                "     */\n" +
-                "    function createData(datas) {\n" +
-                "        var submitData = config.util.form.get($detailContent);\n" +
-                "        if (datas.operate == 'edit') {\n" +
-                "            submitData.id = datas.data.id;\n" +
-                "        }\n" +
-                "        submitData.opUid = tn.cookie.get(\"honeydukesUid\");\n" +
-                "        submitData.opName = tn.Base64.decode(tn.cookie.get(\"honeydukesUname\"));\n" +
-                "        return submitData;\n" +
-                "    }\n" +
-                "\n" +
-                "    /**\n" +
-                "     *功能说明 初始化控件提示状态\n" +
-                "     */\n" +
-                "    function initControlsTipState() {\n" +
-                "        $detailContent.find(\"input\").removeClass('ver-error').removeAttr('data-original-title');\n" +
-                "    }\n" +
-                "    /**\n" +
-                "     *页面AJAX请求URL统一处理\n" +
-                "     */\n" +
-                "    function getAction() {\n" +
-                "        if (config.devcfg) {\n" +
-                "            return {\n" +
-                "                save: config.protectedSystem.server.ASR + \"" + fileNameLower + "/save\",\n" +
-                "                update: config.protectedSystem.server.ASR + \"" + fileNameLower + "/update\",\n" +
-                "            };\n" +
-                "        } else {\n" +
-                "            return {\n" +
-                "                save: config.protectedSystem.server.ASR + \"" + fileNameLower + "/save\",\n" +
-                "                update: config.protectedSystem.server.ASR + \"" + fileNameLower + "/update\",\n" +
-                "            };\n" +
-                "        }\n" +
-                "\n" +
-                "    }\n" +
-                "}\n";
-
-        File formJsFile = new File(modelConfig.getTargetProject() + "\\" + fileName + "Create.js");
-        if (null != formJsStr && !"".equals(formJsStr)) {
-            try {
-                FileWriter fw = new FileWriter(formJsFile);
-                fw.write(formJsStr);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
+    /**
+     * Rows per multi-row insert, kept under the bind parameter limit of the database. The statements stay at
+     * 1000 rows at most, the limit of a SQL Server VALUES list, so they don't outgrow max_allowed_packet on MySQL,
+     * and an Oracle INSERT ALL at 500 as it gets slow to parse beyond that.
+     */
+    static int getBatchInsertRows(DbType dbType, int columnCount) {
+        return Math.max(1, Math.min(dbType == DbType.Oracle ? 500 : 1000, getMaxParameters(dbType) / Math.max(1, columnCount)));
+    }
+
+    /**
+     * Ids per delete statement, Oracle takes 1000 expressions in an in list at most
+     */
+    static int getDeleteIdsPerStatement(DbType dbType) {
+        return Math.min(1000, getMaxParameters(dbType));
+    }
+
+    /**
+     * The number of a numeric option, or the default when it is blank, not a number or not positive
+     */
+    private static int positiveOrDefault(String value, int defaultValue) {
+        int number = NumberUtils.toInt(StringUtils.trim(value));
+        return number > 0 ? number : defaultValue;
+    }
+
+    /**
+     * Fetch size of the streaming selects. Connector/J only streams row by row with Integer.MIN_VALUE, the other
+     * drivers read the rows in chunks of the fetch size.
+     */
+    static int getStreamFetchSize(DbType dbType) {
+        return dbType == DbType.MySQL ? Integer.MIN_VALUE : 1000;
+    }
+
+    /**
+     * Bind parameters one statement may have, every database has a limit
+     */
+    private static int getMaxParameters(DbType dbType) {
+        switch (dbType) {
+            case MySQL:
+                // the placeholder count of a server prepared statement is a 16 bit number
+                return 65535;
+            case SQL_Server:
+                return 2100 - 1;
+            case Sqlite:
+                // SQLITE_MAX_VARIABLE_NUMBER before sqlite 3.32
+                return 999;
+            case PostgreSQL:
+                return Short.MAX_VALUE;
+            case Oracle:
+                return 65535;
+            default:
+                throw new IllegalArgumentException("no bind parameter limit for " + dbType);
         }
     }
 
+    /**
+     * The parameter of an auto-increment column, or default when it is null so that PostgreSQL makes the value
+     */
+    private static String orDefault(IntrospectedColumn column, String prefix) {
+        String property = prefix + column.getJavaProperty();
+        return "<if test=\"" + property + " != null\">" + MyBatis3FormattingUtilities.getParameterClause(column, prefix)
+                + "</if><if test=\"" + property + " == null\">default</if>";
+    }
+
+    /**
+     * Render a template of the generated files, the template folder of the config overrides the bundled templates
+     */
+    private String render(String templateName, Map<String, Object> model) throws IOException {
+        return TemplateEngine.getTemplate(generatorConfig.getTemplateFolder(), templateName).render(model);
+    }
+
+    /**
+     * Notes of the last run for the user, one line each, by table
+     */
+    public List<String> getReport() {
+        List<String> lines = new ArrayList<>(report);
+        Collections.sort(lines);
+        return lines;
+    }
+
 	public void setProgressCallback(ProgressCallback progressCallback) {
         this.progressCallback = progressCallback;
     }
@@ -1296,4 +1169,8 @@ public class MybatisGeneratorBridge {
     public void setColumnOverrides(List<ColumnOverride> columnOverrides) {
         this.columnOverrides = columnOverrides;
     }
+
+    public void setUnlistedColumns(List<String> unlistedColumns) {
+        this.unlistedColumns = unlistedColumns;
+    }
 }
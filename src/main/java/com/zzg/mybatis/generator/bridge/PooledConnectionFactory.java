@@ -0,0 +1,38 @@
+package com.zzg.mybatis.generator.bridge;
+
+import com.alibaba.fastjson.JSON;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.util.DbUtil;
+import org.mybatis.generator.api.ConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Lets MyBatis Generator introspect the tables over the pooled connection of the selected database config instead
+ * of opening its own connection.
+ */
+public class PooledConnectionFactory implements ConnectionFactory {
+
+	/**
+	 * Property holding the database config as json
+	 */
+	public static final String DATABASE_CONFIG = "databaseConfig";
+
+	private DatabaseConfig databaseConfig;
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		try {
+			return DbUtil.getConnection(databaseConfig);
+		} catch (ClassNotFoundException e) {
+			throw new SQLException("找不到数据库驱动: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public void addConfigurationProperties(Properties properties) {
+		databaseConfig = JSON.parseObject(properties.getProperty(DATABASE_CONFIG), DatabaseConfig.class);
+	}
+}
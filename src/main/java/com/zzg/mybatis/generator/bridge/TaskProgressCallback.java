@@ -0,0 +1,16 @@
+package com.zzg.mybatis.generator.bridge;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+/**
+ * A progress callback that also hears when a task finished. The tables of the save phase run on several workers,
+ * so a task started later does not mean the ones before it finished.
+ */
+public interface TaskProgressCallback extends ProgressCallback {
+
+	/**
+	 * Called once a task started with {@link #startTask(String)} finished, tasks that failed or were cancelled are
+	 * not reported
+	 */
+	void finishTask(String taskName);
+}
@@ -2,7 +2,9 @@ package com.zzg.mybatis.generator.controller;
 
 import com.zzg.mybatis.generator.model.DatabaseConfig;
 import com.zzg.mybatis.generator.util.ConfigHelper;
+import com.zzg.mybatis.generator.util.ConnectionPool;
 import com.zzg.mybatis.generator.util.DbUtil;
+import com.zzg.mybatis.generator.util.MetadataCache;
 import com.zzg.mybatis.generator.view.AlertUtil;
 import javafx.fxml.FXML;
 import javafx.scene.control.ChoiceBox;
@@ -37,6 +39,8 @@ public class DbConnectionController extends BaseFXController {
 	private MainUIController mainUIController;
 	private boolean isUpdate = false;
 	private Integer primayKey;
+	// the config before editing, its cached metadata and pooled connections are dropped on save
+	private DatabaseConfig originalConfig;
 
 
 	@Override
@@ -51,6 +55,10 @@ public class DbConnectionController extends BaseFXController {
 		}
 		try {
 			ConfigHelper.saveDatabaseConfig(this.isUpdate, primayKey, config);
+			if (originalConfig != null) {
+				MetadataCache.invalidate(originalConfig);
+				ConnectionPool.close(originalConfig);
+			}
 			getDialogStage().close();
 			mainUIController.loadLeftDBTree();
 		} catch (Exception e) {
@@ -66,7 +74,7 @@ public class DbConnectionController extends BaseFXController {
 			return;
 		}
 		try {
-			DbUtil.getConnection(config);
+			DbUtil.getConnection(config).close();
 			AlertUtil.showInfoAlert("连接成功");
 		} catch (Exception e) {
 			_LOG.error(e.getMessage(), e);
@@ -112,6 +120,7 @@ public class DbConnectionController extends BaseFXController {
 	public void setConfig(DatabaseConfig config) {
 		isUpdate = true;
 		primayKey = config.getId(); // save id for update config
+		originalConfig = config;
 		nameField.setText(config.getName());
 		hostField.setText(config.getHost());
 		portField.setText(config.getPort());
@@ -1,27 +1,37 @@
 package com.zzg.mybatis.generator.controller;
 
 import com.zzg.mybatis.generator.bridge.MybatisGeneratorBridge;
+import com.zzg.mybatis.generator.model.ColumnMetadata;
 import com.zzg.mybatis.generator.model.DatabaseConfig;
 import com.zzg.mybatis.generator.model.GeneratorConfig;
+import com.zzg.mybatis.generator.model.PageCountMode;
 import com.zzg.mybatis.generator.model.UITableColumnVO;
 import com.zzg.mybatis.generator.util.ConfigHelper;
+import com.zzg.mybatis.generator.util.ConnectionPool;
 import com.zzg.mybatis.generator.util.DbUtil;
+import com.zzg.mybatis.generator.util.MetadataCache;
 import com.zzg.mybatis.generator.util.MyStringUtils;
+import com.zzg.mybatis.generator.util.TableNameIndex;
 import com.zzg.mybatis.generator.view.AlertUtil;
 import com.zzg.mybatis.generator.view.UIProgressCallback;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldTreeCell;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.DirectoryChooser;
-import javafx.util.Callback;
+import javafx.util.Duration;
+import javafx.util.converter.DefaultStringConverter;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.mybatis.generator.config.ColumnOverride;
 import org.mybatis.generator.config.IgnoredColumn;
 import org.slf4j.Logger;
@@ -30,15 +40,21 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.net.URL;
 import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
 
 public class MainUIController extends BaseFXController {
 
     private static final Logger _LOG = LoggerFactory.getLogger(MainUIController.class);
     private static final String FOLDER_NO_EXIST = "部分目录不存在，是否创建";
+    private static final long TABLE_FILTER_DELAY_MILLIS = 200;
     // tool bar buttons
     @FXML
     private Label connectionLabel;
@@ -55,6 +71,8 @@ public class MainUIController extends BaseFXController {
     @FXML
     private TextField domainObjectNameField;
     @FXML
+    private TextField tablePatternField;
+    @FXML
     private TextField generateKeysField;	//添加输入框
     @FXML
     private TextField modelTargetProject;
@@ -67,6 +85,8 @@ public class MainUIController extends BaseFXController {
     @FXML
     private TextField projectFolderField;
     @FXML
+    private TextField templateFolderField;
+    @FXML
     private CheckBox offsetLimitCheckBox;
     @FXML
     private CheckBox commentCheckBox;
@@ -79,7 +99,75 @@ public class MainUIController extends BaseFXController {
     @FXML
     private CheckBox useExample;
     @FXML
+    private CheckBox regenerateAllCheckBox;
+    @FXML
+    private TextField workerThreadsField;
+    @FXML
+    private TextField ioThreadsField;
+    @FXML
+    private CheckBox keysetPagingCheckBox;
+    @FXML
+    private ChoiceBox<PageCountMode> pageCountModeChoice;
+    @FXML
+    private CheckBox batchInsertCheckBox;
+    @FXML
+    private CheckBox batchUpdateCheckBox;
+    @FXML
+    private CheckBox upsertCheckBox;
+    @FXML
+    private CheckBox streamQueryCheckBox;
+    @FXML
+    private CheckBox unindexedFiltersCheckBox;
+    @FXML
+    private CheckBox slimListQueryCheckBox;
+    @FXML
+    private CheckBox streamJsonCheckBox;
+    @FXML
+    private CheckBox asyncQueryCheckBox;
+    @FXML
+    private TextField queryThreadsField;
+    @FXML
+    private TextField queryQueueSizeField;
+    @FXML
+    private TextField queryListTimeoutField;
+    @FXML
+    private TextField queryPageTimeoutField;
+    @FXML
+    private CheckBox compactLogCheckBox;
+    @FXML
+    private TextField logSampleEveryField;
+    @FXML
+    private TextField logMaxLengthField;
+    @FXML
+    private CheckBox statementMetricsCheckBox;
+    @FXML
+    private TextField slowQueryMillisField;
+    @FXML
+    private CheckBox readWriteSplitCheckBox;
+    @FXML
+    private TextField stickyMillisField;
+    @FXML
+    private CheckBox mapperCacheCheckBox;
+    @FXML
+    private TextField cacheTablesField;
+    @FXML
+    private ChoiceBox<String> cacheEvictionChoice;
+    @FXML
+    private TextField cacheSizeField;
+    @FXML
+    private TextField cacheFlushIntervalField;
+    @FXML
+    private CheckBox cacheReadOnlyCheckBox;
+    @FXML
+    private Button generateButton;
+    @FXML
+    private TextField tableFilterField;
+    @FXML
     private TreeView<String> leftDBTree;
+    private final Image tableIcon = new Image("icons/table.png", 16, 16, true, true);
+    // tables loaded for each opened connection, indexed for the type-ahead filter
+    private final Map<TreeItem<String>, TableNameIndex<TreeItem<String>>> tableIndexes = new HashMap<>();
+    private final Map<TreeItem<String>, Task<Void>> tableLoadTasks = new HashMap<>();
     // Current selected databaseConfig
     private DatabaseConfig selectedDatabaseConfig;
     // Current selected tableName
@@ -89,6 +177,8 @@ public class MainUIController extends BaseFXController {
 
     private List<ColumnOverride> columnOverrides;
 
+    private List<String> unlistedColumns;
+
     @FXML
     private ChoiceBox<String> encodingChoice;
 
@@ -115,9 +205,22 @@ public class MainUIController extends BaseFXController {
 
         leftDBTree.setShowRoot(false);
         leftDBTree.setRoot(new TreeItem<>());
-        Callback<TreeView<String>, TreeCell<String>> defaultCellFactory = TextFieldTreeCell.forTreeView();
+        // select several tables of one connection to generate them in one run
+        leftDBTree.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         leftDBTree.setCellFactory((TreeView<String> tv) -> {
-            TreeCell<String> cell = defaultCellFactory.call(tv);
+            TreeCell<String> cell = new TextFieldTreeCell<String>(new DefaultStringConverter()) {
+                // only the visible cells have an ImageView, all of them share the table icon
+                private final ImageView tableImage = new ImageView(tableIcon);
+
+                @Override
+                public void updateItem(String item, boolean empty) {
+                    super.updateItem(item, empty);
+                    if (!empty && getTreeItem() != null && getTreeItem().getGraphic() == null
+                            && getTreeView().getTreeItemLevel(getTreeItem()) == 2) {
+                        setGraphic(tableImage);
+                    }
+                }
+            };
             cell.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
                 int level = leftDBTree.getTreeItemLevel(cell.getTreeItem());
                 TreeCell<String> treeCell = (TreeCell<String>) event.getSource();
@@ -125,7 +228,7 @@ public class MainUIController extends BaseFXController {
                 if (level == 1) {
                     final ContextMenu contextMenu = new ContextMenu();
                     MenuItem item1 = new MenuItem("关闭连接");
-                    item1.setOnAction(event1 -> treeItem.getChildren().clear());
+                    item1.setOnAction(event1 -> closeTables(treeItem));
 	                MenuItem item2 = new MenuItem("编辑连接");
 	                item2.setOnAction(event1 -> {
 		                DatabaseConfig selectedConfig = (DatabaseConfig) treeItem.getGraphic().getUserData();
@@ -139,12 +242,21 @@ public class MainUIController extends BaseFXController {
                         DatabaseConfig selectedConfig = (DatabaseConfig) treeItem.getGraphic().getUserData();
                         try {
                             ConfigHelper.deleteDatabaseConfig(selectedConfig);
+                            MetadataCache.invalidate(selectedConfig);
+                            ConnectionPool.close(selectedConfig);
                             this.loadLeftDBTree();
                         } catch (Exception e) {
                             AlertUtil.showErrorAlert("Delete connection failed! Reason: " + e.getMessage());
                         }
                     });
-                    contextMenu.getItems().addAll(item1, item2, item3);
+                    MenuItem item4 = new MenuItem("刷新");
+                    item4.setOnAction(event1 -> {
+                        DatabaseConfig selectedConfig = (DatabaseConfig) treeItem.getGraphic().getUserData();
+                        MetadataCache.invalidate(selectedConfig);
+                        treeItem.setExpanded(true);
+                        loadTables(treeItem, selectedConfig);
+                    });
+                    contextMenu.getItems().addAll(item1, item2, item3, item4);
                     cell.setContextMenu(contextMenu);
                 }
                 if (event.getClickCount() == 2) {
@@ -152,28 +264,8 @@ public class MainUIController extends BaseFXController {
                     if (level == 1) {
                         System.out.println("index: " + leftDBTree.getSelectionModel().getSelectedIndex());
                         DatabaseConfig selectedConfig = (DatabaseConfig) treeItem.getGraphic().getUserData();
-                        try {
-                            List<String> tables = DbUtil.getTableNames(selectedConfig);
-                            if (tables != null && tables.size() > 0) {
-                                ObservableList<TreeItem<String>> children = cell.getTreeItem().getChildren();
-                                children.clear();
-                                for (String tableName : tables) {
-                                    TreeItem<String> newTreeItem = new TreeItem<>();
-                                    ImageView imageView = new ImageView("icons/table.png");
-                                    imageView.setFitHeight(16);
-                                    imageView.setFitWidth(16);
-                                    newTreeItem.setGraphic(imageView);
-                                    newTreeItem.setValue(tableName);
-                                    children.add(newTreeItem);
-                                }
-                            }
-                        } catch (SQLRecoverableException e) {
-                            _LOG.error(e.getMessage(), e);
-                            AlertUtil.showErrorAlert("连接超时");
-                        } catch (Exception e) {
-                            _LOG.error(e.getMessage(), e);
-                            AlertUtil.showErrorAlert(e.getMessage());
-                        }
+                        selectedDatabaseConfig = selectedConfig;
+                        loadTables(treeItem, selectedConfig);
                     } else if (level == 2) { // left DB tree level3
                         String tableName = treeCell.getTreeItem().getValue();
                         selectedDatabaseConfig = (DatabaseConfig) treeItem.getParent().getGraphic().getUserData();
@@ -185,13 +277,100 @@ public class MainUIController extends BaseFXController {
             });
             return cell;
         });
+        PauseTransition filterDelay = new PauseTransition(Duration.millis(TABLE_FILTER_DELAY_MILLIS));
+        filterDelay.setOnFinished(event -> applyTableFilter());
+        tableFilterField.textProperty().addListener((observable, oldValue, newValue) -> filterDelay.playFromStart());
         loadLeftDBTree();
         encodingChoice.setItems(FXCollections.observableArrayList("UTF-8"));
         encodingChoice.setValue("UTF-8");
+        pageCountModeChoice.setItems(FXCollections.observableArrayList(PageCountMode.values()));
+        pageCountModeChoice.setValue(PageCountMode.Exact);
+        cacheEvictionChoice.setItems(FXCollections.observableArrayList("LRU", "FIFO", "SOFT", "WEAK"));
+        cacheEvictionChoice.setValue("LRU");
+    }
+
+    /**
+     * Load the tables of the connection in the background. The names arrive in pages and are added to the tree
+     * as they come, so the tree stays usable while a large schema is still loading.
+     */
+    private void loadTables(TreeItem<String> connectionItem, DatabaseConfig config) {
+        closeTables(connectionItem);
+        TableNameIndex<TreeItem<String>> index = new TableNameIndex<>();
+        tableIndexes.put(connectionItem, index);
+        Task<Void> task = new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                DbUtil.getTableNames(config, DbUtil.TABLE_NAME_PAGE_SIZE, page -> {
+                    if (isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    List<TreeItem<String>> items = new ArrayList<>(page.size());
+                    for (String tableName : page) {
+                        items.add(new TreeItem<>(tableName));
+                    }
+                    Platform.runLater(() -> {
+                        if (!isCancelled()) {
+                            addTableItems(connectionItem, index, items);
+                        }
+                    });
+                });
+                return null;
+            }
+        };
+        task.setOnSucceeded(event -> tableLoadTasks.remove(connectionItem, task));
+        task.setOnFailed(event -> {
+            tableLoadTasks.remove(connectionItem, task);
+            Throwable e = task.getException();
+            _LOG.error(e.getMessage(), e);
+            if (e instanceof SQLRecoverableException || e instanceof SQLTimeoutException) {
+                AlertUtil.showErrorAlert("连接超时");
+            } else {
+                AlertUtil.showErrorAlert(e.getMessage());
+            }
+        });
+        tableLoadTasks.put(connectionItem, task);
+        Thread thread = new Thread(task, "table-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void addTableItems(TreeItem<String> connectionItem, TableNameIndex<TreeItem<String>> index,
+                               List<TreeItem<String>> items) {
+        for (TreeItem<String> item : items) {
+            index.add(item.getValue(), item);
+        }
+        String filter = tableFilterField.getText();
+        if (StringUtils.isBlank(filter)) {
+            connectionItem.getChildren().addAll(items);
+        } else {
+            connectionItem.getChildren().setAll(index.find(filter));
+        }
+    }
+
+    private void applyTableFilter() {
+        String filter = tableFilterField.getText();
+        for (Map.Entry<TreeItem<String>, TableNameIndex<TreeItem<String>>> entry : tableIndexes.entrySet()) {
+            entry.getKey().getChildren().setAll(entry.getValue().find(filter));
+        }
+    }
+
+    /**
+     * Stop loading the tables of the connection and remove them from the tree
+     */
+    private void closeTables(TreeItem<String> connectionItem) {
+        Task<Void> task = tableLoadTasks.remove(connectionItem);
+        if (task != null) {
+            task.cancel();
+        }
+        tableIndexes.remove(connectionItem);
+        connectionItem.getChildren().clear();
     }
 
     void loadLeftDBTree() {
-        TreeItem rootTreeItem = leftDBTree.getRoot();
+        TreeItem<String> rootTreeItem = leftDBTree.getRoot();
+        for (TreeItem<String> connectionItem : rootTreeItem.getChildren()) {
+            closeTables(connectionItem);
+        }
         rootTreeItem.getChildren().clear();
         try {
             List<DatabaseConfig> dbConfigs = ConfigHelper.loadDatabaseConfig();
@@ -222,11 +401,25 @@ public class MainUIController extends BaseFXController {
 
     @FXML
     public void generateCode() {
-        if (tableName == null) {
+        // the tables matching a pattern are listed by the generation task, that may take a database round trip
+        String tablePattern = StringUtils.trimToNull(tablePatternField.getText());
+        if (tablePattern != null && selectedDatabaseConfig == null) {
+            AlertUtil.showErrorAlert("请先在左侧打开数据库连接");
+            return;
+        }
+        List<String> batchTableNames;
+        try {
+            batchTableNames = tablePattern == null ? getSelectedTableNames() : Collections.emptyList();
+        } catch (Exception e) {
+            _LOG.error(e.getMessage(), e);
+            AlertUtil.showErrorAlert(e.getMessage());
+            return;
+        }
+        if (tableName == null && tablePattern == null && batchTableNames.isEmpty()) {
             AlertUtil.showWarnAlert("请先在左侧选择数据库表");
             return;
         }
-        String result = validateConfig();
+        String result = validateConfig(tablePattern != null || !batchTableNames.isEmpty());
 		if (result != null) {
 			AlertUtil.showErrorAlert(result);
 			return;
@@ -236,28 +429,101 @@ public class MainUIController extends BaseFXController {
             return;
         }
 
+        DatabaseConfig databaseConfig = selectedDatabaseConfig;
         MybatisGeneratorBridge bridge = new MybatisGeneratorBridge();
         bridge.setGeneratorConfig(generatorConfig);
-        bridge.setDatabaseConfig(selectedDatabaseConfig);
+        bridge.setDatabaseConfig(databaseConfig);
+        bridge.setTableNames(batchTableNames);
         bridge.setIgnoredColumns(ignoredColumns);
         bridge.setColumnOverrides(columnOverrides);
+        bridge.setUnlistedColumns(unlistedColumns);
 		UIProgressCallback alert = new UIProgressCallback(Alert.AlertType.INFORMATION);
 		bridge.setProgressCallback(alert);
+		// generate off the FX thread, the window stays responsive and the run can be cancelled
+		Task<Void> task = new Task<Void>() {
+			@Override
+			protected Void call() throws Exception {
+				if (tablePattern != null) {
+					bridge.setTableNames(getMatchingTableNames(databaseConfig, tablePattern));
+					alert.checkCancel();
+				}
+				bridge.generate();
+				return null;
+			}
+		};
+		task.setOnSucceeded(event -> {
+			generateButton.setDisable(false);
+			alert.succeeded();
+			List<String> report = bridge.getReport();
+			if (!report.isEmpty()) {
+				AlertUtil.showWarnAlert(String.join("\n", report));
+			}
+		});
+		task.setOnFailed(event -> {
+			generateButton.setDisable(false);
+			Throwable e = task.getException();
+			alert.failed(e);
+			if (!(e instanceof InterruptedException)) {
+				_LOG.error(e.getMessage(), e);
+				AlertUtil.showErrorAlert(e.getMessage());
+			}
+		});
+		generateButton.setDisable(true);
 		alert.show();
-		try {
-            bridge.generate();
-        } catch (Exception e) {
-			e.printStackTrace();
-            AlertUtil.showErrorAlert(e.getMessage());
+		Thread thread = new Thread(task, "code-generator");
+		thread.setDaemon(true);
+		thread.start();
+    }
+
+    /**
+     * Tables of the database matching the batch pattern, called by the generation task since the table names may
+     * have to be read from the database
+     */
+    private static List<String> getMatchingTableNames(DatabaseConfig config, String pattern) throws Exception {
+        List<String> tableNames = new ArrayList<>();
+        for (String name : DbUtil.getTableNames(config)) {
+            if (MyStringUtils.matchTableName(pattern, name)) {
+                tableNames.add(name);
+            }
         }
+        if (tableNames.isEmpty()) {
+            throw new RuntimeException("没有匹配的数据库表: " + pattern);
+        }
+        return tableNames;
+    }
+
+    /**
+     * Tables to generate in one run when more than one is selected in the left tree. Empty means generate the single
+     * table chosen by double click.
+     */
+    private List<String> getSelectedTableNames() {
+        List<String> tableNames = new ArrayList<>();
+        DatabaseConfig batchConfig = null;
+        for (TreeItem<String> treeItem : leftDBTree.getSelectionModel().getSelectedItems()) {
+            if (treeItem == null || leftDBTree.getTreeItemLevel(treeItem) != 2) {
+                continue;
+            }
+            DatabaseConfig config = (DatabaseConfig) treeItem.getParent().getGraphic().getUserData();
+            if (batchConfig == null) {
+                batchConfig = config;
+            } else if (batchConfig != config) {
+                throw new RuntimeException("批量生成只能选择同一个连接下的表");
+            }
+            tableNames.add(treeItem.getValue());
+        }
+        if (tableNames.size() < 2) {
+            return Collections.emptyList();
+        }
+        selectedDatabaseConfig = batchConfig;
+        return tableNames;
     }
 
-	private String validateConfig() {
+	private String validateConfig(boolean batch) {
 		String projectFolder = projectFolderField.getText();
 		if (StringUtils.isEmpty(projectFolder))  {
 			return "项目目录不能为空";
 		}
-		if (StringUtils.isEmpty(domainObjectNameField.getText()))  {
+		if (!batch && StringUtils.isEmpty(domainObjectNameField.getText()))  {
 			return "类名不能为空";
 		}
 		if (StringUtils.isAnyEmpty(modelTargetPackage.getText(), mapperTargetPackage.getText(), daoTargetPackage.getText())) {
@@ -310,6 +576,37 @@ public class MainUIController extends BaseFXController {
         generatorConfig.setUseActualColumnNames(useActualColumnNamesCheckbox.isSelected());
         generatorConfig.setEncoding(encodingChoice.getValue());
         generatorConfig.setUseExampe(useExample.isSelected());
+        generatorConfig.setTemplateFolder(templateFolderField.getText());
+        generatorConfig.setRegenerateAll(regenerateAllCheckBox.isSelected());
+        generatorConfig.setWorkerThreads(NumberUtils.toInt(StringUtils.trim(workerThreadsField.getText())));
+        generatorConfig.setIoThreads(NumberUtils.toInt(StringUtils.trim(ioThreadsField.getText())));
+        generatorConfig.setKeysetPaging(keysetPagingCheckBox.isSelected());
+        generatorConfig.setPageCountMode(pageCountModeChoice.getValue().name());
+        generatorConfig.setBatchInsert(batchInsertCheckBox.isSelected());
+        generatorConfig.setBatchUpdate(batchUpdateCheckBox.isSelected());
+        generatorConfig.setUpsert(upsertCheckBox.isSelected());
+        generatorConfig.setStreamQuery(streamQueryCheckBox.isSelected());
+        generatorConfig.setUnindexedFilters(unindexedFiltersCheckBox.isSelected());
+        generatorConfig.setSlimListQuery(slimListQueryCheckBox.isSelected());
+        generatorConfig.setStreamJson(streamJsonCheckBox.isSelected());
+        generatorConfig.setAsyncQuery(asyncQueryCheckBox.isSelected());
+        generatorConfig.setQueryThreads(queryThreadsField.getText());
+        generatorConfig.setQueryQueueSize(queryQueueSizeField.getText());
+        generatorConfig.setQueryListTimeoutMillis(queryListTimeoutField.getText());
+        generatorConfig.setQueryPageTimeoutMillis(queryPageTimeoutField.getText());
+        generatorConfig.setCompactLog(compactLogCheckBox.isSelected());
+        generatorConfig.setLogSampleEvery(logSampleEveryField.getText());
+        generatorConfig.setLogMaxLength(logMaxLengthField.getText());
+        generatorConfig.setStatementMetrics(statementMetricsCheckBox.isSelected());
+        generatorConfig.setSlowQueryMillis(slowQueryMillisField.getText());
+        generatorConfig.setReadWriteSplit(readWriteSplitCheckBox.isSelected());
+        generatorConfig.setStickyMillis(stickyMillisField.getText());
+        generatorConfig.setMapperCache(mapperCacheCheckBox.isSelected());
+        generatorConfig.setCacheTables(cacheTablesField.getText());
+        generatorConfig.setCacheEviction(cacheEvictionChoice.getValue());
+        generatorConfig.setCacheSize(cacheSizeField.getText());
+        generatorConfig.setCacheFlushInterval(cacheFlushIntervalField.getText());
+        generatorConfig.setCacheReadOnly(cacheReadOnlyCheckBox.isSelected());
         return generatorConfig;
     }
 
@@ -323,6 +620,37 @@ public class MainUIController extends BaseFXController {
         mapperTargetPackage.setText(generatorConfig.getMappingXMLPackage());
         mappingTargetProject.setText(generatorConfig.getMappingXMLTargetFolder());
         encodingChoice.setValue(generatorConfig.getEncoding());
+        templateFolderField.setText(generatorConfig.getTemplateFolder());
+        regenerateAllCheckBox.setSelected(generatorConfig.isRegenerateAll());
+        workerThreadsField.setText(generatorConfig.getWorkerThreads() > 0 ? String.valueOf(generatorConfig.getWorkerThreads()) : "");
+        ioThreadsField.setText(generatorConfig.getIoThreads() > 0 ? String.valueOf(generatorConfig.getIoThreads()) : "");
+        keysetPagingCheckBox.setSelected(generatorConfig.isKeysetPaging());
+        pageCountModeChoice.setValue(PageCountMode.of(generatorConfig.getPageCountMode()));
+        batchInsertCheckBox.setSelected(generatorConfig.isBatchInsert());
+        batchUpdateCheckBox.setSelected(generatorConfig.isBatchUpdate());
+        upsertCheckBox.setSelected(generatorConfig.isUpsert());
+        streamQueryCheckBox.setSelected(generatorConfig.isStreamQuery());
+        unindexedFiltersCheckBox.setSelected(generatorConfig.isUnindexedFilters());
+        slimListQueryCheckBox.setSelected(generatorConfig.isSlimListQuery());
+        streamJsonCheckBox.setSelected(generatorConfig.isStreamJson());
+        asyncQueryCheckBox.setSelected(generatorConfig.isAsyncQuery());
+        queryThreadsField.setText(generatorConfig.getQueryThreads());
+        queryQueueSizeField.setText(generatorConfig.getQueryQueueSize());
+        queryListTimeoutField.setText(generatorConfig.getQueryListTimeoutMillis());
+        queryPageTimeoutField.setText(generatorConfig.getQueryPageTimeoutMillis());
+        compactLogCheckBox.setSelected(generatorConfig.isCompactLog());
+        logSampleEveryField.setText(generatorConfig.getLogSampleEvery());
+        logMaxLengthField.setText(generatorConfig.getLogMaxLength());
+        statementMetricsCheckBox.setSelected(generatorConfig.isStatementMetrics());
+        slowQueryMillisField.setText(generatorConfig.getSlowQueryMillis());
+        readWriteSplitCheckBox.setSelected(generatorConfig.isReadWriteSplit());
+        stickyMillisField.setText(generatorConfig.getStickyMillis());
+        mapperCacheCheckBox.setSelected(generatorConfig.isMapperCache());
+        cacheTablesField.setText(generatorConfig.getCacheTables());
+        cacheEvictionChoice.setValue(StringUtils.defaultIfBlank(generatorConfig.getCacheEviction(), "LRU"));
+        cacheSizeField.setText(generatorConfig.getCacheSize());
+        cacheFlushIntervalField.setText(generatorConfig.getCacheFlushInterval());
+        cacheReadOnlyCheckBox.setSelected(generatorConfig.isCacheReadOnly());
     }
 
     @FXML
@@ -336,7 +664,13 @@ public class MainUIController extends BaseFXController {
         try {
             // If select same schema and another table, update table data
             if (!tableName.equals(controller.getTableName())) {
-                List<UITableColumnVO> tableColumns = DbUtil.getTableColumns(selectedDatabaseConfig, tableName);
+                List<UITableColumnVO> tableColumns = new ArrayList<>();
+                for (ColumnMetadata column : DbUtil.getTableColumns(selectedDatabaseConfig, tableName)) {
+                    UITableColumnVO columnVO = new UITableColumnVO();
+                    columnVO.setColumnName(column.getColumnName());
+                    columnVO.setJdbcType(column.getJdbcType());
+                    tableColumns.add(columnVO);
+                }
                 controller.setColumnList(FXCollections.observableList(tableColumns));
                 controller.setTableName(tableName);
             }
@@ -355,6 +689,10 @@ public class MainUIController extends BaseFXController {
         this.columnOverrides = columnOverrides;
     }
 
+    public void setUnlistedColumns(List<String> unlistedColumns) {
+        this.unlistedColumns = unlistedColumns;
+    }
+
     /**
      * 检查并创建不存在的文件夹
      *
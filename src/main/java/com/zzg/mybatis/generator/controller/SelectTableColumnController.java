@@ -26,6 +26,8 @@ public class SelectTableColumnController extends BaseFXController {
     @FXML
     private TableColumn<UITableColumnVO, Boolean> checkedColumn;
     @FXML
+    private TableColumn<UITableColumnVO, Boolean> listedColumn;
+    @FXML
     private TableColumn<UITableColumnVO, String> columnNameColumn;
     @FXML
     private TableColumn<UITableColumnVO, String> jdbcTypeColumn;
@@ -44,12 +46,14 @@ public class SelectTableColumnController extends BaseFXController {
     public void initialize(URL location, ResourceBundle resources) {
         // cellvaluefactory
         checkedColumn.setCellValueFactory(new PropertyValueFactory<>("checked"));
+        listedColumn.setCellValueFactory(new PropertyValueFactory<>("listed"));
         columnNameColumn.setCellValueFactory(new PropertyValueFactory<>("columnName"));
         jdbcTypeColumn.setCellValueFactory(new PropertyValueFactory<>("jdbcType"));
         propertyNameColumn.setCellValueFactory(new PropertyValueFactory<>("propertyName"));
         typeHandlerColumn.setCellValueFactory(new PropertyValueFactory<>("typeHandler"));
         // Cell Factory that customize how the cell should render
         checkedColumn.setCellFactory(CheckBoxTableCell.forTableColumn(checkedColumn));
+        listedColumn.setCellFactory(CheckBoxTableCell.forTableColumn(listedColumn));
         javaTypeColumn.setCellFactory(TextFieldTableCell.forTableColumn());
         // handle commit event to save the user input data
         javaTypeColumn.setOnEditCommit(event -> {
@@ -71,7 +75,11 @@ public class SelectTableColumnController extends BaseFXController {
         if (items != null && items.size() > 0) {
             List<IgnoredColumn> ignoredColumns = new ArrayList<>();
             List<ColumnOverride> columnOverrides = new ArrayList<>();
+            List<String> unlistedColumns = new ArrayList<>();
             items.stream().forEach(item -> {
+                if (!item.getListed()) {
+                    unlistedColumns.add(item.getColumnName());
+                }
                 if (!item.getChecked()) {
                     IgnoredColumn ignoredColumn = new IgnoredColumn(item.getColumnName());
                     ignoredColumns.add(ignoredColumn);
@@ -85,6 +93,7 @@ public class SelectTableColumnController extends BaseFXController {
             });
             mainUIController.setIgnoredColumns(ignoredColumns);
             mainUIController.setColumnOverrides(columnOverrides);
+            mainUIController.setUnlistedColumns(unlistedColumns);
         }
         getDialogStage().close();
     }
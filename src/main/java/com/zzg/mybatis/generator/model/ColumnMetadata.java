@@ -0,0 +1,93 @@
+package com.zzg.mybatis.generator.model;
+
+/**
+ * Column information read from DatabaseMetaData, plain java bean so it can be cached as json
+ */
+public class ColumnMetadata {
+
+	private String columnName;
+
+	/**
+	 * The database specific type name, such as VARCHAR
+	 */
+	private String jdbcType;
+
+	/**
+	 * The SQL type from java.sql.Types
+	 */
+	private int dataType;
+
+	private int columnSize;
+
+	private int decimalDigits;
+
+	private boolean nullable;
+
+	private String remarks;
+
+	private boolean primaryKey;
+
+	public String getColumnName() {
+		return columnName;
+	}
+
+	public void setColumnName(String columnName) {
+		this.columnName = columnName;
+	}
+
+	public String getJdbcType() {
+		return jdbcType;
+	}
+
+	public void setJdbcType(String jdbcType) {
+		this.jdbcType = jdbcType;
+	}
+
+	public int getDataType() {
+		return dataType;
+	}
+
+	public void setDataType(int dataType) {
+		this.dataType = dataType;
+	}
+
+	public int getColumnSize() {
+		return columnSize;
+	}
+
+	public void setColumnSize(int columnSize) {
+		this.columnSize = columnSize;
+	}
+
+	public int getDecimalDigits() {
+		return decimalDigits;
+	}
+
+	public void setDecimalDigits(int decimalDigits) {
+		this.decimalDigits = decimalDigits;
+	}
+
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	public void setNullable(boolean nullable) {
+		this.nullable = nullable;
+	}
+
+	public String getRemarks() {
+		return remarks;
+	}
+
+	public void setRemarks(String remarks) {
+		this.remarks = remarks;
+	}
+
+	public boolean isPrimaryKey() {
+		return primaryKey;
+	}
+
+	public void setPrimaryKey(boolean primaryKey) {
+		this.primaryKey = primaryKey;
+	}
+}
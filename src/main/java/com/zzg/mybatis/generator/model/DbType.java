@@ -5,20 +5,25 @@ package com.zzg.mybatis.generator.model;
  */
 public enum DbType {
 
-    MySQL("com.mysql.jdbc.Driver", "jdbc:mysql://%s:%s/%s?useUnicode=true&useSSL=false&characterEncoding=%s", "mysql-connector-java-5.1.38.jar"),
-    Oracle("oracle.jdbc.driver.OracleDriver", "jdbc:oracle:thin:@%s:%s:%s", "ojdbc14.jar"),
-    PostgreSQL("org.postgresql.Driver", "jdbc:postgresql://%s:%s/%s", "postgresql-9.4.1209.jar"),
-	SQL_Server("com.microsoft.sqlserver.jdbc.SQLServerDriver", "jdbc:sqlserver://%s:%s;databaseName=%s", "sqljdbc4-4.0.jar"),
-	Sqlite("org.sqlite.JDBC", "jdbc:sqlite:%s", "sqlite-jdbc-3.19.3.jar");
+    MySQL("com.mysql.jdbc.Driver", "jdbc:mysql://%s:%s/%s?useUnicode=true&useSSL=false&characterEncoding=%s", "mysql-connector-java-5.1.38.jar", "SELECT 1"),
+    Oracle("oracle.jdbc.driver.OracleDriver", "jdbc:oracle:thin:@%s:%s:%s", "ojdbc14.jar", "SELECT 1 FROM DUAL"),
+    PostgreSQL("org.postgresql.Driver", "jdbc:postgresql://%s:%s/%s", "postgresql-9.4.1209.jar", "SELECT 1"),
+	SQL_Server("com.microsoft.sqlserver.jdbc.SQLServerDriver", "jdbc:sqlserver://%s:%s;databaseName=%s", "sqljdbc4-4.0.jar", "SELECT 1"),
+	Sqlite("org.sqlite.JDBC", "jdbc:sqlite:%s", "sqlite-jdbc-3.19.3.jar", "SELECT 1");
 
     private final String driverClass;
     private final String connectionUrlPattern;
     private final String connectorJarFile;
+    /**
+     * Used to check pooled connections when the driver has no Connection.isValid
+     */
+    private final String validationQuery;
 
-    DbType(String driverClass, String connectionUrlPattern, String connectorJarFile) {
+    DbType(String driverClass, String connectionUrlPattern, String connectorJarFile, String validationQuery) {
         this.driverClass = driverClass;
         this.connectionUrlPattern = connectionUrlPattern;
         this.connectorJarFile = connectorJarFile;
+        this.validationQuery = validationQuery;
     }
 
     public String getDriverClass() {
@@ -32,4 +37,8 @@ public enum DbType {
     public String getConnectorJarFile() {
         return connectorJarFile;
     }
+
+    public String getValidationQuery() {
+        return validationQuery;
+    }
 }
\ No newline at end of file
@@ -52,6 +52,161 @@ public class GeneratorConfig {
 
 	private String encoding;
 
+	/**
+	 * 并行生成代码的线程数, 0表示使用CPU核数
+	 */
+	private int workerThreads;
+
+	/**
+	 * 同时写文件的线程数, 0表示使用默认值
+	 */
+	private int ioThreads;
+
+	/**
+	 * 自定义模板目录, 其中的同名模板覆盖内置模板
+	 */
+	private String templateFolder;
+
+	/**
+	 * 全部重新生成, 不跳过表结构和配置都没有变化的表
+	 */
+	private boolean regenerateAll;
+
+	/**
+	 * 生成按主键翻页的查询, 从上一页最后一行的主键往后取, 翻到再深的页也不用扫描跳过的行
+	 */
+	private boolean keysetPaging;
+
+	/**
+	 * 列表接口怎样得到总数, PageCountMode 的名字, 为空时每页统计总数
+	 */
+	private String pageCountMode;
+
+	/**
+	 * 生成多行insert的batchInsert方法和批量保存接口
+	 */
+	private boolean batchInsert;
+
+	/**
+	 * 生成用BATCH执行器批量修改的Service和批量修改接口
+	 */
+	private boolean batchUpdate;
+
+	/**
+	 * 生成按主键或唯一索引插入或修改的upsert和batchUpsert
+	 */
+	private boolean upsert;
+
+	/**
+	 * 生成逐行读取查询结果的stream和cursor方法, 导出大表时不占用大量内存
+	 */
+	private boolean streamQuery;
+
+	/**
+	 * 没有索引的列也生成查询条件, 按这些列查询会扫描全表
+	 */
+	private boolean unindexedFilters;
+
+	/**
+	 * 列表接口只查询列表显示的字段(queryXxxListSlim), 完整的记录只在按id查询时读取
+	 */
+	private boolean slimListQuery;
+
+	/**
+	 * 在Mapper.xml中生成MyBatis二级缓存(&lt;cache&gt;), 适合读多写少的字典表
+	 */
+	private boolean mapperCache;
+
+	/**
+	 * 使用二级缓存的表, 逗号分隔, 为空时所有生成的表都使用
+	 */
+	private String cacheTables;
+
+	/**
+	 * 缓存淘汰策略: LRU, FIFO, SOFT, WEAK, 为空时LRU
+	 */
+	private String cacheEviction;
+
+	/**
+	 * 缓存的查询结果个数, 为空时1024
+	 */
+	private String cacheSize;
+
+	/**
+	 * 缓存定时清空的间隔(毫秒), 为空时只在增删改时清空
+	 */
+	private String cacheFlushInterval;
+
+	/**
+	 * 只读缓存直接返回缓存中的对象, 调用方不能修改; 否则每次返回序列化的副本
+	 */
+	private boolean cacheReadOnly;
+
+	/**
+	 * 接口把结果以JSON直接写到输出流并按需gzip压缩, 不再输出Base64编码的字符串
+	 */
+	private boolean streamJson;
+
+	/**
+	 * 列表查询接口在每个表自己的有界线程池中异步执行(DeferredResult), 有超时时间, 排队满时直接拒绝
+	 */
+	private boolean asyncQuery;
+
+	/**
+	 * 接口日志只记录行数和id, 不再把整个查询结果和参数转成JSON记录
+	 */
+	private boolean compactLog;
+
+	/**
+	 * 每多少个请求记录一次日志, 为空时每个请求都记录
+	 */
+	private String logSampleEvery;
+
+	/**
+	 * 查询参数日志的最大长度, 为空时500
+	 */
+	private String logMaxLength;
+
+	/**
+	 * 生成记录每个mapper语句耗时分布的MyBatis拦截器和/metrics接口, 整个项目生成一次
+	 */
+	private boolean statementMetrics;
+
+	/**
+	 * 超过这个耗时(毫秒)的语句记录慢查询日志, 为空时1000
+	 */
+	private String slowQueryMillis;
+
+	/**
+	 * 读写分离, 生成路由数据源和拦截器, mapper的查询方法标上@ReadReplica走从库, 整个项目生成一次
+	 */
+	private boolean readWriteSplit;
+
+	/**
+	 * 一个线程中某个mapper写过之后这么多毫秒内, 这个线程对它的查询仍走主库, 为空时3000
+	 */
+	private String stickyMillis;
+
+	/**
+	 * 异步查询时每个表的查询线程数, 为空时8
+	 */
+	private String queryThreads;
+
+	/**
+	 * 异步查询时每个表排队的查询数, 为空时100
+	 */
+	private String queryQueueSize;
+
+	/**
+	 * 异步查询时/query接口等待结果的毫秒数, 为空时10000
+	 */
+	private String queryListTimeoutMillis;
+
+	/**
+	 * 异步查询时/queryPage接口等待结果的毫秒数, 为空时5000
+	 */
+	private String queryPageTimeoutMillis;
+
 	public boolean isUseExampe() {
 		return useExampe;
 	}
@@ -211,4 +366,252 @@ public class GeneratorConfig {
     public void setEncoding(String encoding) {
         this.encoding = encoding;
     }
+
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+
+	public void setWorkerThreads(int workerThreads) {
+		this.workerThreads = workerThreads;
+	}
+
+	public int getIoThreads() {
+		return ioThreads;
+	}
+
+	public void setIoThreads(int ioThreads) {
+		this.ioThreads = ioThreads;
+	}
+
+	public String getTemplateFolder() {
+		return templateFolder;
+	}
+
+	public void setTemplateFolder(String templateFolder) {
+		this.templateFolder = templateFolder;
+	}
+
+	public boolean isRegenerateAll() {
+		return regenerateAll;
+	}
+
+	public void setRegenerateAll(boolean regenerateAll) {
+		this.regenerateAll = regenerateAll;
+	}
+
+	public boolean isKeysetPaging() {
+		return keysetPaging;
+	}
+
+	public void setKeysetPaging(boolean keysetPaging) {
+		this.keysetPaging = keysetPaging;
+	}
+
+	public String getPageCountMode() {
+		return pageCountMode;
+	}
+
+	public void setPageCountMode(String pageCountMode) {
+		this.pageCountMode = pageCountMode;
+	}
+
+	public boolean isBatchInsert() {
+		return batchInsert;
+	}
+
+	public void setBatchInsert(boolean batchInsert) {
+		this.batchInsert = batchInsert;
+	}
+
+	public boolean isBatchUpdate() {
+		return batchUpdate;
+	}
+
+	public void setBatchUpdate(boolean batchUpdate) {
+		this.batchUpdate = batchUpdate;
+	}
+
+	public boolean isUpsert() {
+		return upsert;
+	}
+
+	public void setUpsert(boolean upsert) {
+		this.upsert = upsert;
+	}
+
+	public boolean isStreamQuery() {
+		return streamQuery;
+	}
+
+	public void setStreamQuery(boolean streamQuery) {
+		this.streamQuery = streamQuery;
+	}
+
+	public boolean isUnindexedFilters() {
+		return unindexedFilters;
+	}
+
+	public void setUnindexedFilters(boolean unindexedFilters) {
+		this.unindexedFilters = unindexedFilters;
+	}
+
+	public boolean isSlimListQuery() {
+		return slimListQuery;
+	}
+
+	public void setSlimListQuery(boolean slimListQuery) {
+		this.slimListQuery = slimListQuery;
+	}
+
+	public boolean isMapperCache() {
+		return mapperCache;
+	}
+
+	public void setMapperCache(boolean mapperCache) {
+		this.mapperCache = mapperCache;
+	}
+
+	public String getCacheTables() {
+		return cacheTables;
+	}
+
+	public void setCacheTables(String cacheTables) {
+		this.cacheTables = cacheTables;
+	}
+
+	public String getCacheEviction() {
+		return cacheEviction;
+	}
+
+	public void setCacheEviction(String cacheEviction) {
+		this.cacheEviction = cacheEviction;
+	}
+
+	public String getCacheSize() {
+		return cacheSize;
+	}
+
+	public void setCacheSize(String cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	public String getCacheFlushInterval() {
+		return cacheFlushInterval;
+	}
+
+	public void setCacheFlushInterval(String cacheFlushInterval) {
+		this.cacheFlushInterval = cacheFlushInterval;
+	}
+
+	public boolean isCacheReadOnly() {
+		return cacheReadOnly;
+	}
+
+	public void setCacheReadOnly(boolean cacheReadOnly) {
+		this.cacheReadOnly = cacheReadOnly;
+	}
+
+	public boolean isStreamJson() {
+		return streamJson;
+	}
+
+	public void setStreamJson(boolean streamJson) {
+		this.streamJson = streamJson;
+	}
+
+	public boolean isAsyncQuery() {
+		return asyncQuery;
+	}
+
+	public void setAsyncQuery(boolean asyncQuery) {
+		this.asyncQuery = asyncQuery;
+	}
+
+	public boolean isCompactLog() {
+		return compactLog;
+	}
+
+	public void setCompactLog(boolean compactLog) {
+		this.compactLog = compactLog;
+	}
+
+	public String getLogSampleEvery() {
+		return logSampleEvery;
+	}
+
+	public void setLogSampleEvery(String logSampleEvery) {
+		this.logSampleEvery = logSampleEvery;
+	}
+
+	public String getLogMaxLength() {
+		return logMaxLength;
+	}
+
+	public void setLogMaxLength(String logMaxLength) {
+		this.logMaxLength = logMaxLength;
+	}
+
+	public boolean isStatementMetrics() {
+		return statementMetrics;
+	}
+
+	public void setStatementMetrics(boolean statementMetrics) {
+		this.statementMetrics = statementMetrics;
+	}
+
+	public String getSlowQueryMillis() {
+		return slowQueryMillis;
+	}
+
+	public void setSlowQueryMillis(String slowQueryMillis) {
+		this.slowQueryMillis = slowQueryMillis;
+	}
+
+	public boolean isReadWriteSplit() {
+		return readWriteSplit;
+	}
+
+	public void setReadWriteSplit(boolean readWriteSplit) {
+		this.readWriteSplit = readWriteSplit;
+	}
+
+	public String getStickyMillis() {
+		return stickyMillis;
+	}
+
+	public void setStickyMillis(String stickyMillis) {
+		this.stickyMillis = stickyMillis;
+	}
+
+	public String getQueryThreads() {
+		return queryThreads;
+	}
+
+	public void setQueryThreads(String queryThreads) {
+		this.queryThreads = queryThreads;
+	}
+
+	public String getQueryQueueSize() {
+		return queryQueueSize;
+	}
+
+	public void setQueryQueueSize(String queryQueueSize) {
+		this.queryQueueSize = queryQueueSize;
+	}
+
+	public String getQueryListTimeoutMillis() {
+		return queryListTimeoutMillis;
+	}
+
+	public void setQueryListTimeoutMillis(String queryListTimeoutMillis) {
+		this.queryListTimeoutMillis = queryListTimeoutMillis;
+	}
+
+	public String getQueryPageTimeoutMillis() {
+		return queryPageTimeoutMillis;
+	}
+
+	public void setQueryPageTimeoutMillis(String queryPageTimeoutMillis) {
+		this.queryPageTimeoutMillis = queryPageTimeoutMillis;
+	}
 }
@@ -0,0 +1,47 @@
+package com.zzg.mybatis.generator.model;
+
+/**
+ * How the generated list endpoint gets the total of the paged list
+ */
+public enum PageCountMode {
+
+    /**
+     * count the rows on every page
+     */
+    Exact("每页统计总数"),
+    /**
+     * fetch one row more than the page to tell whether there is a next page
+     */
+    HasMore("不统计总数, 只判断有无下一页"),
+    /**
+     * cache the count by the filter values, estimate the unfiltered total from the table statistics on MySQL
+     */
+    Cached("缓存总数");
+
+    private final String label;
+
+    PageCountMode(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the mode of the name, Exact for a missing or unknown name
+     */
+    public static PageCountMode of(String name) {
+        for (PageCountMode mode : values()) {
+            if (mode.name().equals(name)) {
+                return mode;
+            }
+        }
+        return Exact;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -12,6 +12,11 @@ public class UITableColumnVO {
 
     private BooleanProperty checked = new SimpleBooleanProperty(true); // Default set to true
 
+    /**
+     * whether the list query reads the column
+     */
+    private BooleanProperty listed = new SimpleBooleanProperty(true);
+
     private StringProperty columnName = new SimpleStringProperty();
 
     private StringProperty javaType = new SimpleStringProperty();
@@ -58,6 +63,18 @@ public class UITableColumnVO {
         this.checked.set(checked);
     }
 
+    public BooleanProperty listedProperty() {
+        return listed;
+    }
+
+    public Boolean getListed() {
+        return this.listed.get();
+    }
+
+    public void setListed(Boolean listed) {
+        this.listed.set(listed);
+    }
+
     public StringProperty typeHandleProperty() {
         return typeHandle;
     }
@@ -0,0 +1,256 @@
+package com.zzg.mybatis.generator.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template compiled once to its render plan, then rendered any number of times into a single buffer.
+ * <p>
+ * The syntax is a small subset of mustache:
+ * <ul>
+ * <li>{{name}} the value of name, looked up from the innermost section outwards, {{.}} is the current item</li>
+ * <li>{{#name}}...{{/name}} rendered once per item of a list, or once when the value is true or an object</li>
+ * <li>{{^name}}...{{/name}} rendered once when the value is missing, false or an empty list</li>
+ * <li>{{! comment}}</li>
+ * </ul>
+ * Section and comment tags alone on their line are removed with the line. Values are written as they are, and a
+ * brace right before a tag stays text, so #{{{name}}} renders a MyBatis parameter.
+ */
+public class Template {
+
+	private final String name;
+
+	private final String source;
+
+	private final Node[] nodes;
+
+	/**
+	 * size of the last rendering, used to size the next buffer
+	 */
+	private volatile int sizeHint;
+
+	private Template(String name, String source, Node[] nodes, int sizeHint) {
+		this.name = name;
+		this.source = source;
+		this.nodes = nodes;
+		this.sizeHint = sizeHint;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public String render(Map<String, ?> model) {
+		StringBuilder out = new StringBuilder(sizeHint + (sizeHint >> 3));
+		render(model, out);
+		sizeHint = out.length();
+		return out.toString();
+	}
+
+	public void render(Map<String, ?> model, StringBuilder out) {
+		Deque<Object> scopes = new ArrayDeque<>();
+		scopes.push(model);
+		renderNodes(nodes, scopes, out);
+	}
+
+	public static Template compile(String name, String source) {
+		List<List<Node>> nodeStack = new ArrayList<>();
+		List<String> sectionStack = new ArrayList<>();
+		List<Boolean> invertedStack = new ArrayList<>();
+		List<Node> current = new ArrayList<>();
+		int pos = 0;
+		while (true) {
+			int open = source.indexOf("{{", pos);
+			if (open < 0) {
+				addText(current, source.substring(pos));
+				break;
+			}
+			while (open + 2 < source.length() && source.charAt(open + 2) == '{') {
+				open++;
+			}
+			int close = source.indexOf("}}", open + 2);
+			if (close < 0) {
+				throw new IllegalArgumentException(name + ": 标签没有结束, 第" + lineOf(source, open) + "行");
+			}
+			String tag = source.substring(open + 2, close).trim();
+			char type = tag.isEmpty() ? ' ' : tag.charAt(0);
+			int textEnd = open;
+			int next = close + 2;
+			if (type == '#' || type == '^' || type == '/' || type == '!') {
+				tag = tag.substring(1).trim();
+				// a tag alone on its line takes the line with it
+				int lineStart = source.lastIndexOf('\n', open - 1) + 1;
+				int lineEnd = source.indexOf('\n', next);
+				if (lineEnd < 0) {
+					lineEnd = source.length();
+				}
+				if (lineStart >= pos && isBlank(source, lineStart, open) && isBlank(source, next, lineEnd)) {
+					textEnd = lineStart;
+					next = lineEnd < source.length() ? lineEnd + 1 : lineEnd;
+				}
+			}
+			addText(current, source.substring(pos, textEnd));
+			pos = next;
+			if (tag.isEmpty()) {
+				throw new IllegalArgumentException(name + ": 空标签, 第" + lineOf(source, open) + "行");
+			}
+			switch (type) {
+				case '!':
+					break;
+				case '#':
+				case '^':
+					nodeStack.add(current);
+					sectionStack.add(tag);
+					invertedStack.add(type == '^');
+					current = new ArrayList<>();
+					break;
+				case '/':
+					int last = sectionStack.size() - 1;
+					if (last < 0 || !sectionStack.get(last).equals(tag)) {
+						throw new IllegalArgumentException(name + ": {{/" + tag + "}} 没有对应的开始标签, 第"
+								+ lineOf(source, open) + "行");
+					}
+					Node section = new SectionNode(tag, current.toArray(new Node[0]), invertedStack.remove(last));
+					sectionStack.remove(last);
+					current = nodeStack.remove(last);
+					current.add(section);
+					break;
+				default:
+					current.add(new VariableNode(tag));
+			}
+		}
+		if (!sectionStack.isEmpty()) {
+			throw new IllegalArgumentException(name + ": {{#" + sectionStack.get(sectionStack.size() - 1) + "}} 没有结束标签");
+		}
+		return new Template(name, source, current.toArray(new Node[0]), source.length());
+	}
+
+	private static void addText(List<Node> nodes, String text) {
+		if (!text.isEmpty()) {
+			nodes.add(new TextNode(text));
+		}
+	}
+
+	private static boolean isBlank(String source, int from, int to) {
+		for (int i = from; i < to; i++) {
+			char c = source.charAt(i);
+			if (c != ' ' && c != '\t' && c != '\r') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int lineOf(String source, int index) {
+		int line = 1;
+		for (int i = 0; i < index; i++) {
+			if (source.charAt(i) == '\n') {
+				line++;
+			}
+		}
+		return line;
+	}
+
+	private static void renderNodes(Node[] nodes, Deque<Object> scopes, StringBuilder out) {
+		for (Node node : nodes) {
+			node.render(scopes, out);
+		}
+	}
+
+	private static Object lookup(Deque<Object> scopes, String name) {
+		if (".".equals(name)) {
+			return scopes.peek();
+		}
+		for (Object scope : scopes) {
+			if (scope instanceof Map && ((Map) scope).containsKey(name)) {
+				return ((Map) scope).get(name);
+			}
+		}
+		return null;
+	}
+
+	private interface Node {
+
+		void render(Deque<Object> scopes, StringBuilder out);
+	}
+
+	private static class TextNode implements Node {
+
+		private final String text;
+
+		TextNode(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public void render(Deque<Object> scopes, StringBuilder out) {
+			out.append(text);
+		}
+	}
+
+	private static class VariableNode implements Node {
+
+		private final String name;
+
+		VariableNode(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void render(Deque<Object> scopes, StringBuilder out) {
+			Object value = lookup(scopes, name);
+			if (value != null) {
+				out.append(value);
+			}
+		}
+	}
+
+	private static class SectionNode implements Node {
+
+		private final String name;
+
+		private final Node[] children;
+
+		private final boolean inverted;
+
+		SectionNode(String name, Node[] children, boolean inverted) {
+			this.name = name;
+			this.children = children;
+			this.inverted = inverted;
+		}
+
+		@Override
+		public void render(Deque<Object> scopes, StringBuilder out) {
+			Object value = lookup(scopes, name);
+			boolean empty = value == null || Boolean.FALSE.equals(value)
+					|| (value instanceof Collection && ((Collection) value).isEmpty());
+			if (inverted || empty) {
+				if (inverted && empty) {
+					renderNodes(children, scopes, out);
+				}
+				return;
+			}
+			if (value instanceof Collection) {
+				for (Object item : (Collection) value) {
+					scopes.push(item);
+					renderNodes(children, scopes, out);
+					scopes.pop();
+				}
+			} else if (value instanceof Boolean) {
+				renderNodes(children, scopes, out);
+			} else {
+				scopes.push(value);
+				renderNodes(children, scopes, out);
+				scopes.pop();
+			}
+		}
+	}
+}
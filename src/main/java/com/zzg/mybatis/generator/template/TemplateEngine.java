@@ -0,0 +1,76 @@
+package com.zzg.mybatis.generator.template;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads and caches the compiled templates of the generated files. A template in the template folder of the
+ * generator config replaces the bundled one of the same name, and is compiled again when the file changes.
+ */
+public class TemplateEngine {
+
+	private static final Logger _LOG = LoggerFactory.getLogger(TemplateEngine.class);
+
+	private static final String BUNDLED_FOLDER = "templates/";
+
+	private static final Map<String, CachedTemplate> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param templateFolder folder of the user templates, may be blank
+	 * @param name file name of the template, such as Controller.java.tpl
+	 */
+	public static Template getTemplate(String templateFolder, String name) throws IOException {
+		if (StringUtils.isNotBlank(templateFolder)) {
+			File file = new File(templateFolder, name);
+			if (file.isFile()) {
+				String key = file.getAbsolutePath();
+				long lastModified = file.lastModified();
+				CachedTemplate cached = cache.get(key);
+				if (cached == null || cached.lastModified != lastModified) {
+					_LOG.info("compile template: {}", key);
+					cached = new CachedTemplate(Template.compile(key, FileUtils.readFileToString(file, "UTF-8")),
+							lastModified);
+					cache.put(key, cached);
+				}
+				return cached.template;
+			}
+		}
+		String key = BUNDLED_FOLDER + name;
+		CachedTemplate cached = cache.get(key);
+		if (cached == null) {
+			InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(key);
+			if (in == null) {
+				throw new FileNotFoundException("找不到模板: " + name);
+			}
+			try {
+				cached = new CachedTemplate(Template.compile(key, IOUtils.toString(in, "UTF-8")), 0);
+			} finally {
+				in.close();
+			}
+			cache.put(key, cached);
+		}
+		return cached.template;
+	}
+
+	private static class CachedTemplate {
+
+		private final Template template;
+
+		private final long lastModified;
+
+		CachedTemplate(Template template, long lastModified) {
+			this.template = template;
+			this.lastModified = lastModified;
+		}
+	}
+}
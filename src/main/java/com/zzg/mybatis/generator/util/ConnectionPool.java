@@ -0,0 +1,272 @@
+package com.zzg.mybatis.generator.util;
+
+import com.alibaba.fastjson.JSON;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.model.DbType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Small connection pool per saved database connection, so browsing tables and generating code reuse the physical
+ * connections instead of paying the TLS and login handshake on every metadata call.
+ * <p>
+ * Closing a borrowed connection hands it back to the pool. Idle connections are validated when borrowed and closed
+ * by a background evictor after {@link #IDLE_TIMEOUT_MILLIS}.
+ */
+public class ConnectionPool {
+
+	private static final Logger _LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+	private static final int MAX_IDLE_CONNECTIONS = 4;
+
+	private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private static final long EVICT_INTERVAL_SECONDS = 30;
+
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+	private static final Map<DatabaseConfig, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+	private static ScheduledExecutorService evictor;
+
+	private final DatabaseConfig config;
+
+	private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+
+	private boolean closed;
+
+	private ConnectionPool(DatabaseConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Borrow a connection of the config, close it to give it back
+	 */
+	public static Connection getConnection(DatabaseConfig config) throws ClassNotFoundException, SQLException {
+		startEvictor();
+		ConnectionPool pool = pools.get(config);
+		if (pool == null) {
+			// key on a copy, the caller may keep editing its config object
+			DatabaseConfig key = JSON.parseObject(JSON.toJSONString(config), DatabaseConfig.class);
+			pool = pools.computeIfAbsent(key, ConnectionPool::new);
+		}
+		return pool.borrow();
+	}
+
+	/**
+	 * Close the idle connections of the config, called when the connection is edited or deleted
+	 */
+	public static void close(DatabaseConfig config) {
+		ConnectionPool pool = pools.remove(config);
+		if (pool != null) {
+			pool.closeAll();
+		}
+	}
+
+	/**
+	 * Close all the pools, called on application exit
+	 */
+	public static synchronized void shutdown() {
+		if (evictor != null) {
+			evictor.shutdownNow();
+			evictor = null;
+		}
+		for (DatabaseConfig config : pools.keySet()) {
+			close(config);
+		}
+	}
+
+	private static synchronized void startEvictor() {
+		if (evictor != null) {
+			return;
+		}
+		evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "connection-pool-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		evictor.scheduleWithFixedDelay(() -> {
+			for (ConnectionPool pool : pools.values()) {
+				pool.evictIdle();
+			}
+		}, EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private Connection borrow() throws ClassNotFoundException, SQLException {
+		IdleConnection idle;
+		while ((idle = pollIdle()) != null) {
+			if (isValid(idle.connection)) {
+				return wrap(idle.connection);
+			}
+			_LOG.info("discard broken connection of {}", config.getName());
+			closeQuietly(idle.connection);
+		}
+		return wrap(DbUtil.connect(config));
+	}
+
+	private synchronized IdleConnection pollIdle() {
+		return idleConnections.pollFirst();
+	}
+
+	private void release(Connection connection) {
+		try {
+			if (connection.isClosed()) {
+				return;
+			}
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			closeQuietly(connection);
+			return;
+		}
+		synchronized (this) {
+			if (!closed && idleConnections.size() < MAX_IDLE_CONNECTIONS) {
+				idleConnections.offerFirst(new IdleConnection(connection, System.currentTimeMillis()));
+				return;
+			}
+		}
+		closeQuietly(connection);
+	}
+
+	private void evictIdle() {
+		long expireTime = System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS;
+		synchronized (this) {
+			Iterator<IdleConnection> iterator = idleConnections.iterator();
+			while (iterator.hasNext()) {
+				IdleConnection idle = iterator.next();
+				if (idle.idleSince < expireTime) {
+					iterator.remove();
+					closeQuietly(idle.connection);
+				}
+			}
+		}
+	}
+
+	private synchronized void closeAll() {
+		closed = true;
+		for (IdleConnection idle : idleConnections) {
+			closeQuietly(idle.connection);
+		}
+		idleConnections.clear();
+	}
+
+	private boolean isValid(Connection connection) {
+		try {
+			return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (AbstractMethodError | SQLFeatureNotSupportedException e) {
+			// JDBC 3 drivers such as ojdbc14 don't have isValid
+			return isValidByQuery(connection);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private boolean isValidByQuery(Connection connection) {
+		Statement stat = null;
+		try {
+			stat = connection.createStatement();
+			stat.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+			stat.execute(DbType.valueOf(config.getDbType()).getValidationQuery());
+			return true;
+		} catch (SQLException e) {
+			return false;
+		} finally {
+			if (stat != null) {
+				try {
+					stat.close();
+				} catch (SQLException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+				new Class<?>[]{Connection.class}, new PooledConnectionHandler(connection));
+	}
+
+	private static void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (Exception e) {
+			_LOG.warn("close connection failed: {}", e.getMessage());
+		}
+	}
+
+	private static class IdleConnection {
+
+		private final Connection connection;
+
+		private final long idleSince;
+
+		IdleConnection(Connection connection, long idleSince) {
+			this.connection = connection;
+			this.idleSince = idleSince;
+		}
+	}
+
+	/**
+	 * Gives the physical connection back to the pool on close, and refuses any use after that
+	 */
+	private class PooledConnectionHandler implements InvocationHandler {
+
+		private final Connection connection;
+
+		/**
+		 * the proxy may be closed from another thread than the one that took it from the pool
+		 */
+		private final AtomicBoolean returned = new AtomicBoolean();
+
+		PooledConnectionHandler(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (returned.compareAndSet(false, true)) {
+						release(connection);
+					}
+					return null;
+				case "isClosed":
+					return returned.get() || connection.isClosed();
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Pooled" + connection;
+			}
+			if (returned.get()) {
+				throw new SQLException("Connection is closed");
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+	}
+}
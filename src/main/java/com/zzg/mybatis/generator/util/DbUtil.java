@@ -1,14 +1,22 @@
 package com.zzg.mybatis.generator.util;
 
+import com.zzg.mybatis.generator.model.ColumnMetadata;
 import com.zzg.mybatis.generator.model.DatabaseConfig;
 import com.zzg.mybatis.generator.model.DbType;
-import com.zzg.mybatis.generator.model.UITableColumnVO;
 import org.mybatis.generator.internal.util.ClassloaderUtility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Created by Owen on 6/12/16.
@@ -16,7 +24,15 @@ import java.util.*;
 public class DbUtil {
 
     private static final Logger _LOG = LoggerFactory.getLogger(DbUtil.class);
-    private static final int DB_CONNECTION_TIMEOUTS_SECONDS = 1;
+    private static final int DB_CONNECTION_TIMEOUTS_SECONDS = 10;
+
+    public static final int TABLE_NAME_PAGE_SIZE = 500;
+
+    private static final ExecutorService connectExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "db-connect");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private static Map<DbType, Driver> drivers;
 
@@ -37,40 +53,181 @@ public class DbUtil {
 		}
 	}
 
+    /**
+     * Borrow a pooled connection of the config, closing it gives it back to the pool
+     */
     public static Connection getConnection(DatabaseConfig config) throws ClassNotFoundException, SQLException {
+        return ConnectionPool.getConnection(config);
+    }
+
+    /**
+     * Open a new physical connection. Driver.connect ignores DriverManager.setLoginTimeout, so the timeout is passed
+     * to the driver and also enforced here for drivers that don't know the property.
+     */
+    static Connection connect(DatabaseConfig config) throws ClassNotFoundException, SQLException {
+        DbType dbType = DbType.valueOf(config.getDbType());
         String url = getConnectionUrlWithSchema(config);
 	    Properties props = new Properties();
 
 	    props.setProperty("user", config.getUsername()); //$NON-NLS-1$
 	    props.setProperty("password", config.getPassword()); //$NON-NLS-1$
+	    addConnectProperties(dbType, props);
 
-		DriverManager.setLoginTimeout(DB_CONNECTION_TIMEOUTS_SECONDS);
-	    Connection connection = drivers.get(DbType.valueOf(config.getDbType())).connect(url, props);
-        _LOG.info("getConnection, connection url: {}", connection);
-        return connection;
+	    Driver driver = drivers.get(dbType);
+	    if (driver == null) {
+		    throw new ClassNotFoundException(dbType.getDriverClass());
+	    }
+	    AtomicBoolean abandoned = new AtomicBoolean();
+	    Future<Connection> future = connectExecutor.submit(() -> {
+		    Connection connection = driver.connect(url, props);
+		    if (abandoned.get() && connection != null) {
+			    connection.close();
+		    }
+		    return connection;
+	    });
+	    try {
+		    Connection connection = future.get(DB_CONNECTION_TIMEOUTS_SECONDS, TimeUnit.SECONDS);
+		    _LOG.info("getConnection, connection url: {}", connection);
+		    return connection;
+	    } catch (TimeoutException e) {
+		    abandoned.set(true);
+		    if (!future.cancel(true)) {
+			    // connected right after the timeout
+			    closeQuietly(future);
+		    }
+		    throw new SQLTimeoutException("连接超时(" + DB_CONNECTION_TIMEOUTS_SECONDS + "秒): " + url);
+	    } catch (ExecutionException e) {
+		    Throwable cause = e.getCause();
+		    if (cause instanceof SQLException) {
+			    throw (SQLException) cause;
+		    }
+		    if (cause instanceof RuntimeException) {
+			    throw (RuntimeException) cause;
+		    }
+		    throw new SQLException(cause);
+	    } catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    future.cancel(true);
+		    throw new SQLException("连接被中断: " + url, e);
+	    }
     }
 
+    private static void addConnectProperties(DbType dbType, Properties props) {
+	    String timeoutSeconds = String.valueOf(DB_CONNECTION_TIMEOUTS_SECONDS);
+	    String timeoutMillis = String.valueOf(TimeUnit.SECONDS.toMillis(DB_CONNECTION_TIMEOUTS_SECONDS));
+	    switch (dbType) {
+		    case MySQL:
+			    props.setProperty("connectTimeout", timeoutMillis);
+			    // http://www.mybatis.org/generator/usage/mysql.html
+			    props.setProperty("nullCatalogMeansCurrent", "true");
+			    break;
+		    case PostgreSQL:
+			    props.setProperty("connectTimeout", timeoutSeconds);
+			    props.setProperty("loginTimeout", timeoutSeconds);
+			    break;
+		    case SQL_Server:
+			    props.setProperty("loginTimeout", timeoutSeconds);
+			    break;
+		    case Oracle:
+			    props.setProperty("oracle.net.CONNECT_TIMEOUT", timeoutMillis);
+			    break;
+		    default:
+			    break;
+	    }
+    }
+
+    private static void closeQuietly(Future<Connection> future) {
+	    try {
+		    Connection connection = future.get();
+		    if (connection != null) {
+			    connection.close();
+		    }
+	    } catch (Exception e) {
+		    _LOG.warn("close abandoned connection failed: {}", e.getMessage());
+	    }
+    }
+
+    /**
+     * Table names of the connection, served from the metadata cache when possible. If the database can't be reached
+     * an expired cache entry is used instead.
+     */
     public static List<String> getTableNames(DatabaseConfig config) throws Exception {
+        List<String> tables = new ArrayList<>();
+        getTableNames(config, TABLE_NAME_PAGE_SIZE, tables::addAll);
+        return tables;
+    }
+
+    /**
+     * Table names read from the database, not from the cache. The cached list is replaced with them, the cached
+     * columns of the tables are kept.
+     */
+    public static List<String> reloadTableNames(DatabaseConfig config) throws Exception {
+        PageCollector collector = new PageCollector(TABLE_NAME_PAGE_SIZE, page -> {
+        });
+        loadTableNames(config, collector);
+        MetadataCache.putTableNames(config, collector.tables);
+        return collector.tables;
+    }
+
+    /**
+     * Hand the table names to the consumer page by page as they are read, so large schemas can be shown before
+     * the whole list arrived. Cached names are paged the same way.
+     */
+    public static void getTableNames(DatabaseConfig config, int pageSize, Consumer<List<String>> pageConsumer) throws Exception {
+        List<String> tables = MetadataCache.getTableNames(config, false);
+        if (tables != null) {
+            sendPages(tables, pageSize, pageConsumer);
+            return;
+        }
+        PageCollector collector = new PageCollector(pageSize, pageConsumer);
+        try {
+            loadTableNames(config, collector);
+        } catch (Exception e) {
+            tables = MetadataCache.getTableNames(config, true);
+            // pages already shown can't be taken back
+            if (tables == null || collector.sent) {
+                throw e;
+            }
+            _LOG.warn("getTableNames failed, use cached table names: {}", e.getMessage());
+            sendPages(tables, pageSize, pageConsumer);
+            return;
+        }
+        collector.flush();
+        MetadataCache.putTableNames(config, collector.tables);
+    }
+
+    private static void sendPages(List<String> tables, int pageSize, Consumer<List<String>> pageConsumer) {
+        for (int i = 0; i < tables.size(); i += pageSize) {
+            pageConsumer.accept(new ArrayList<>(tables.subList(i, Math.min(i + pageSize, tables.size()))));
+        }
+    }
+
+    private static void loadTableNames(DatabaseConfig config, PageCollector collector) throws Exception {
         String url = getConnectionUrlWithSchema(config);
         _LOG.info("getTableNames, connection url: {}", url);
 	    Connection connection = getConnection(config);
+	    Statement stat = null;
+	    ResultSet rs = null;
 	    try {
-		    List<String> tables = new ArrayList<>();
 		    DatabaseMetaData md = connection.getMetaData();
-		    ResultSet rs;
 		    if (DbType.valueOf(config.getDbType()) == DbType.SQL_Server) {
 			    String sql = "select name from sysobjects  where xtype='u' or xtype='v' ";
-			    rs = connection.createStatement().executeQuery(sql);
+			    stat = connection.createStatement();
+			    stat.setFetchSize(TABLE_NAME_PAGE_SIZE);
+			    rs = stat.executeQuery(sql);
 			    while (rs.next()) {
-				    tables.add(rs.getString("name"));
+				    collector.add(rs.getString("name"));
 			    }
 		    } else if (DbType.valueOf(config.getDbType()) == DbType.Oracle){
 			    rs = md.getTables(null, config.getUsername().toUpperCase(), null, new String[] {"TABLE", "VIEW"});
+			    // the Oracle driver fetches 10 rows per round trip by default
+			    setFetchSize(rs);
 		    } else if (DbType.valueOf(config.getDbType())==DbType.Sqlite){
 		    	String sql = "Select name from sqlite_master;";
-			    rs = connection.createStatement().executeQuery(sql);
+			    stat = connection.createStatement();
+			    rs = stat.executeQuery(sql);
 			    while (rs.next()) {
-				    tables.add(rs.getString("name"));
+				    collector.add(rs.getString("name"));
 			    }
 		    } 
 		    else {
@@ -78,30 +235,131 @@ public class DbUtil {
 
 
 				rs = md.getTables(config.getSchema(), null, "%", new String[] {"TABLE", "VIEW"});			//针对 postgresql 的左侧数据表显示
+			    setFetchSize(rs);
 		    }
 		    while (rs.next()) {
-			    tables.add(rs.getString(3));
+			    collector.add(rs.getString(3));
 		    }
-		    return tables;
 	    } finally {
-	    	connection.close();
+		    // the connection goes back to the pool, don't leave cursors open on it, also when the listing failed
+		    try {
+			    if (rs != null) {
+				    rs.close();
+			    }
+		    } finally {
+			    try {
+				    if (stat != null) {
+					    stat.close();
+				    }
+			    } finally {
+				    connection.close();
+			    }
+		    }
 	    }
 	}
 
-    public static List<UITableColumnVO> getTableColumns(DatabaseConfig dbConfig, String tableName) throws Exception {
+    private static void setFetchSize(ResultSet rs) {
+        try {
+            rs.setFetchSize(TABLE_NAME_PAGE_SIZE);
+        } catch (SQLException e) {
+            // only a hint
+            _LOG.debug("setFetchSize not supported: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Collects the table names and passes them on in pages
+     */
+    private static class PageCollector {
+
+        private final int pageSize;
+
+        private final Consumer<List<String>> pageConsumer;
+
+        private final List<String> tables = new ArrayList<>();
+
+        private List<String> page = new ArrayList<>();
+
+        private boolean sent;
+
+        PageCollector(int pageSize, Consumer<List<String>> pageConsumer) {
+            this.pageSize = pageSize;
+            this.pageConsumer = pageConsumer;
+        }
+
+        void add(String tableName) {
+            tables.add(tableName);
+            page.add(tableName);
+            if (page.size() >= pageSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+                page = new ArrayList<>();
+                sent = true;
+            }
+        }
+    }
+
+    /**
+     * Columns of the table, served from the metadata cache when possible. If the database can't be reached an
+     * expired cache entry is used instead.
+     */
+    public static List<ColumnMetadata> getTableColumns(DatabaseConfig dbConfig, String tableName) throws Exception {
+        List<ColumnMetadata> columns = MetadataCache.getTableColumns(dbConfig, tableName, false);
+        if (columns != null) {
+            return columns;
+        }
+        try {
+            columns = loadTableColumns(dbConfig, tableName);
+        } catch (Exception e) {
+            columns = MetadataCache.getTableColumns(dbConfig, tableName, true);
+            if (columns == null) {
+                throw e;
+            }
+            _LOG.warn("getTableColumns failed, use cached columns: {}", e.getMessage());
+            return columns;
+        }
+        MetadataCache.putTableColumns(dbConfig, tableName, columns);
+        return columns;
+    }
+
+    private static List<ColumnMetadata> loadTableColumns(DatabaseConfig dbConfig, String tableName) throws Exception {
         String url = getConnectionUrlWithSchema(dbConfig);
         _LOG.info("getTableColumns, connection url: {}", url);
 		Connection conn = getConnection(dbConfig);
 		try {
 			DatabaseMetaData md = conn.getMetaData();
+			Set<String> primaryKeys = new HashSet<>();
+			ResultSet pkRs = md.getPrimaryKeys(null, null, tableName);
+			try {
+				while (pkRs.next()) {
+					primaryKeys.add(pkRs.getString("COLUMN_NAME"));
+				}
+			} finally {
+				pkRs.close();
+			}
 			ResultSet rs = md.getColumns(null, null, tableName, null);
-			List<UITableColumnVO> columns = new ArrayList<>();
-			while (rs.next()) {
-				UITableColumnVO columnVO = new UITableColumnVO();
-				String columnName = rs.getString("COLUMN_NAME");
-				columnVO.setColumnName(columnName);
-				columnVO.setJdbcType(rs.getString("TYPE_NAME"));
-				columns.add(columnVO);
+			List<ColumnMetadata> columns = new ArrayList<>();
+			try {
+				while (rs.next()) {
+					ColumnMetadata column = new ColumnMetadata();
+					String columnName = rs.getString("COLUMN_NAME");
+					column.setColumnName(columnName);
+					column.setJdbcType(rs.getString("TYPE_NAME"));
+					column.setDataType(rs.getInt("DATA_TYPE"));
+					column.setColumnSize(rs.getInt("COLUMN_SIZE"));
+					column.setDecimalDigits(rs.getInt("DECIMAL_DIGITS"));
+					column.setNullable(rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+					column.setRemarks(rs.getString("REMARKS"));
+					column.setPrimaryKey(primaryKeys.contains(columnName));
+					columns.add(column);
+				}
+			} finally {
+				rs.close();
 			}
 			return columns;
 		} finally {
@@ -109,6 +367,115 @@ public class DbUtil {
 		}
 	}
 
+    /**
+     * Fingerprint of what MyBatis Generator introspects of a table: its columns with their types, defaults and
+     * remarks, its primary key and the table remarks. Always read from the database since the metadata cache may be
+     * stale, and the names are matched the way MyBatis Generator matches them.
+     *
+     * @return null if the table is not found
+     */
+    public static String getTableFingerprint(Connection connection, String catalog, String schema, String tableName,
+                                             boolean delimitIdentifiers) throws SQLException {
+        DatabaseMetaData md = connection.getMetaData();
+        if (!delimitIdentifiers) {
+            catalog = toStoredCase(md, catalog);
+            schema = toStoredCase(md, schema);
+            tableName = toStoredCase(md, tableName);
+        }
+        StringBuilder text = new StringBuilder();
+        if (appendRows(md.getColumns(catalog, schema, tableName, "%"), text) == 0) {
+            return null;
+        }
+        appendRows(md.getPrimaryKeys(catalog, schema, tableName), text);
+        appendRows(md.getTables(catalog, schema, tableName, null), text);
+        return GenerationManifest.digest(text.toString());
+    }
+
+    /**
+     * Columns of the first unique index of a table by index name, matched like getTableFingerprint. The primary key
+     * index counts as well.
+     *
+     * @return empty if the table has no unique index on plain columns
+     */
+    public static List<String> getUniqueIndexColumns(Connection connection, String catalog, String schema,
+                                                     String tableName, boolean delimitIdentifiers) throws SQLException {
+        Map<String, List<String>> indexes = getIndexColumns(connection, catalog, schema, tableName, delimitIdentifiers, true);
+        return indexes.isEmpty() ? Collections.emptyList() : indexes.values().iterator().next();
+    }
+
+    /**
+     * Indexes of a table on plain columns, matched like getTableFingerprint. Indexes on expressions are left out.
+     *
+     * @return the columns of each index in index order, by index name
+     */
+    public static Map<String, List<String>> getIndexColumns(Connection connection, String catalog, String schema,
+                                                            String tableName, boolean delimitIdentifiers,
+                                                            boolean unique) throws SQLException {
+        DatabaseMetaData md = connection.getMetaData();
+        if (!delimitIdentifiers) {
+            catalog = toStoredCase(md, catalog);
+            schema = toStoredCase(md, schema);
+            tableName = toStoredCase(md, tableName);
+        }
+        Map<String, TreeMap<Short, String>> indexes = new TreeMap<>();
+        Set<String> expressionIndexes = new HashSet<>();
+        ResultSet rs = md.getIndexInfo(catalog, schema, tableName, unique, true);
+        try {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexName == null || rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                String columnName = rs.getString("COLUMN_NAME");
+                if (columnName == null) {
+                    // an index on an expression can't serve a predicate on a plain column
+                    expressionIndexes.add(indexName);
+                    continue;
+                }
+                indexes.computeIfAbsent(indexName, name -> new TreeMap<>()).put(rs.getShort("ORDINAL_POSITION"), columnName);
+            }
+        } finally {
+            rs.close();
+        }
+        Map<String, List<String>> indexColumns = new LinkedHashMap<>();
+        for (Map.Entry<String, TreeMap<Short, String>> index : indexes.entrySet()) {
+            if (!expressionIndexes.contains(index.getKey())) {
+                indexColumns.put(index.getKey(), new ArrayList<>(index.getValue().values()));
+            }
+        }
+        return indexColumns;
+    }
+
+    private static String toStoredCase(DatabaseMetaData md, String name) throws SQLException {
+        if (name == null) {
+            return null;
+        }
+        if (md.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase();
+        }
+        if (md.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase();
+        }
+        return name;
+    }
+
+    private static int appendRows(ResultSet rs, StringBuilder text) throws SQLException {
+        try {
+            int columnCount = rs.getMetaData().getColumnCount();
+            int rows = 0;
+            while (rs.next()) {
+                for (int i = 1; i <= columnCount; i++) {
+                    text.append(rs.getString(i)).append('\t');
+                }
+                text.append('\n');
+                rows++;
+            }
+            return rows;
+        } finally {
+            rs.close();
+        }
+    }
+
     public static String getConnectionUrlWithSchema(DatabaseConfig dbConfig) throws ClassNotFoundException {
 		DbType dbType = DbType.valueOf(dbConfig.getDbType());
 		String connectionUrl = String.format(dbType.getConnectionUrlPattern(), dbConfig.getHost(), dbConfig.getPort(), dbConfig.getSchema(), dbConfig.getEncoding());
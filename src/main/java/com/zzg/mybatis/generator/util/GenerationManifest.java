@@ -0,0 +1,219 @@
+package com.zzg.mybatis.generator.util;
+
+import com.alibaba.fastjson.JSON;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Record of the last generation of each table, kept in the generation_manifest table of the sqlite config db. An
+ * entry holds the fingerprint of the table structure and generator options it was generated from, and the hash of
+ * every file written for it, so an unchanged table can be skipped and an unchanged file left untouched.
+ * <p>
+ * Entries are keyed by the connection identity, like the metadata cache, and the table name.
+ */
+public class GenerationManifest {
+
+	private static final Logger _LOG = LoggerFactory.getLogger(GenerationManifest.class);
+
+	private static volatile boolean manifestTableCreated;
+
+	/**
+	 * @return the entries of all the tables generated from the connection, empty if the manifest can't be read
+	 */
+	public static Map<String, TableEntry> load(DatabaseConfig config) {
+		Map<String, TableEntry> entries = new HashMap<>();
+		Connection conn = null;
+		PreparedStatement stat = null;
+		ResultSet rs = null;
+		try {
+			conn = openManifestDb();
+			stat = conn.prepareStatement("SELECT table_name, value FROM generation_manifest WHERE config_key = ?");
+			stat.setString(1, MetadataCache.configKey(config));
+			rs = stat.executeQuery();
+			while (rs.next()) {
+				entries.put(rs.getString("table_name"), JSON.parseObject(rs.getString("value"), TableEntry.class));
+			}
+		} catch (Exception e) {
+			// everything is generated again without the manifest
+			_LOG.warn("load generation manifest failed: {}", e.getMessage());
+		} finally {
+			closeQuietly(rs, stat, conn);
+		}
+		return entries;
+	}
+
+	/**
+	 * Store the entries of the tables generated in one run, in one transaction
+	 */
+	public static void save(DatabaseConfig config, Map<String, TableEntry> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		Connection conn = null;
+		PreparedStatement stat = null;
+		try {
+			conn = openManifestDb();
+			conn.setAutoCommit(false);
+			stat = conn.prepareStatement("INSERT OR REPLACE INTO generation_manifest (config_key, table_name, value, " +
+					"update_time) values(?, ?, ?, ?)");
+			String configKey = MetadataCache.configKey(config);
+			long now = System.currentTimeMillis();
+			for (Map.Entry<String, TableEntry> entry : entries.entrySet()) {
+				stat.setString(1, configKey);
+				stat.setString(2, entry.getKey());
+				stat.setString(3, JSON.toJSONString(entry.getValue()));
+				stat.setLong(4, now);
+				stat.addBatch();
+			}
+			stat.executeBatch();
+			conn.commit();
+		} catch (Exception e) {
+			_LOG.warn("save generation manifest failed: {}", e.getMessage());
+		} finally {
+			closeQuietly(null, stat, conn);
+		}
+	}
+
+	/**
+	 * Hex SHA-256 of the text
+	 */
+	public static String digest(String text) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Connection openManifestDb() throws Exception {
+		Connection conn = ConnectionManager.getConnection();
+		if (!manifestTableCreated) {
+			Statement stat = conn.createStatement();
+			try {
+				stat.executeUpdate("CREATE TABLE IF NOT EXISTS generation_manifest (config_key TEXT NOT NULL, " +
+						"table_name TEXT NOT NULL, value TEXT, update_time INTEGER, PRIMARY KEY (config_key, table_name))");
+				manifestTableCreated = true;
+			} finally {
+				stat.close();
+			}
+		}
+		return conn;
+	}
+
+	private static void closeQuietly(ResultSet rs, Statement stat, Connection conn) {
+		try {
+			if (rs != null) rs.close();
+			if (stat != null) stat.close();
+			if (conn != null) conn.close();
+		} catch (Exception e) {
+			_LOG.warn(e.getMessage());
+		}
+	}
+
+	/**
+	 * The last generation of one table
+	 */
+	public static class TableEntry {
+
+		private String fingerprint;
+
+		/**
+		 * written files by absolute path
+		 */
+		private Map<String, FileEntry> files = new HashMap<>();
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+
+		public void setFingerprint(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+
+		public Map<String, FileEntry> getFiles() {
+			return files;
+		}
+
+		public void setFiles(Map<String, FileEntry> files) {
+			this.files = files;
+		}
+
+		/**
+		 * @return true if every file written for the table is still on disk as it was written
+		 */
+		public boolean matchesFiles() {
+			for (Map.Entry<String, FileEntry> file : files.entrySet()) {
+				if (!file.getValue().isUnchanged(new File(file.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A written file, its length and modification time tell whether it was changed since
+	 */
+	public static class FileEntry {
+
+		private String hash;
+
+		private long length;
+
+		private long lastModified;
+
+		public FileEntry() {
+		}
+
+		public FileEntry(String hash, File file) {
+			this.hash = hash;
+			this.length = file.length();
+			this.lastModified = file.lastModified();
+		}
+
+		public String getHash() {
+			return hash;
+		}
+
+		public void setHash(String hash) {
+			this.hash = hash;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public void setLength(long length) {
+			this.length = length;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		public void setLastModified(long lastModified) {
+			this.lastModified = lastModified;
+		}
+
+		public boolean isUnchanged(File file) {
+			return file.isFile() && file.length() == length && file.lastModified() == lastModified;
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package com.zzg.mybatis.generator.util;
+
+import com.alibaba.fastjson.JSON;
+import com.zzg.mybatis.generator.model.ColumnMetadata;
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the table names and table columns of the saved database connections. Entries live in memory and in the
+ * metadata_cache table of the sqlite config db, so reopening a known schema does not ask the database again and
+ * still works when the database can't be reached.
+ * <p>
+ * Entries are keyed by the connection identity (type, host, port, schema and user) and expire after the ttl.
+ */
+public class MetadataCache {
+
+	private static final Logger _LOG = LoggerFactory.getLogger(MetadataCache.class);
+
+	/**
+	 * table_name of the entry holding the table list of a connection
+	 */
+	private static final String TABLE_LIST = "";
+
+	private static final Map<String, CacheEntry> memoryCache = new ConcurrentHashMap<>();
+
+	private static volatile long ttlMillis = TimeUnit.DAYS.toMillis(1);
+
+	private static volatile boolean cacheTableCreated;
+
+	public static void setTtlMillis(long ttlMillis) {
+		MetadataCache.ttlMillis = ttlMillis;
+	}
+
+	/**
+	 * @param allowExpired return an expired entry too, used when the database can't be reached
+	 * @return the cached table names, null if not cached
+	 */
+	public static List<String> getTableNames(DatabaseConfig config, boolean allowExpired) {
+		CacheEntry entry = get(config, TABLE_LIST, allowExpired);
+		return entry == null ? null : new ArrayList<>(JSON.parseArray(entry.value, String.class));
+	}
+
+	public static void putTableNames(DatabaseConfig config, List<String> tableNames) {
+		put(config, TABLE_LIST, JSON.toJSONString(tableNames));
+	}
+
+	/**
+	 * @param allowExpired return an expired entry too, used when the database can't be reached
+	 * @return the cached columns of the table, null if not cached
+	 */
+	public static List<ColumnMetadata> getTableColumns(DatabaseConfig config, String tableName, boolean allowExpired) {
+		CacheEntry entry = get(config, tableName, allowExpired);
+		return entry == null ? null : JSON.parseArray(entry.value, ColumnMetadata.class);
+	}
+
+	public static void putTableColumns(DatabaseConfig config, String tableName, List<ColumnMetadata> columns) {
+		put(config, tableName, JSON.toJSONString(columns));
+	}
+
+	/**
+	 * Drop everything cached for the connection, called on refresh and when the connection is edited or deleted
+	 */
+	public static void invalidate(DatabaseConfig config) {
+		String configKey = configKey(config);
+		memoryCache.keySet().removeIf(key -> key.startsWith(configKey + '\n'));
+		Connection conn = null;
+		PreparedStatement stat = null;
+		try {
+			conn = openCacheDb();
+			stat = conn.prepareStatement("DELETE FROM metadata_cache WHERE config_key = ?");
+			stat.setString(1, configKey);
+			stat.executeUpdate();
+		} catch (Exception e) {
+			_LOG.warn("invalidate metadata cache failed: {}", e.getMessage());
+		} finally {
+			closeQuietly(null, stat, conn);
+		}
+	}
+
+	static String configKey(DatabaseConfig config) {
+		return config.getDbType() + "|" + config.getHost() + "|" + config.getPort() + "|" + config.getSchema() + "|"
+				+ config.getUsername();
+	}
+
+	private static CacheEntry get(DatabaseConfig config, String tableName, boolean allowExpired) {
+		String configKey = configKey(config);
+		String key = configKey + '\n' + tableName;
+		CacheEntry entry = memoryCache.get(key);
+		if (entry == null) {
+			entry = load(configKey, tableName);
+			if (entry != null) {
+				memoryCache.put(key, entry);
+			}
+		}
+		if (entry == null || (!allowExpired && System.currentTimeMillis() - entry.updateTime > ttlMillis)) {
+			return null;
+		}
+		return entry;
+	}
+
+	private static void put(DatabaseConfig config, String tableName, String value) {
+		String configKey = configKey(config);
+		CacheEntry entry = new CacheEntry(value, System.currentTimeMillis());
+		memoryCache.put(configKey + '\n' + tableName, entry);
+		Connection conn = null;
+		PreparedStatement stat = null;
+		try {
+			conn = openCacheDb();
+			stat = conn.prepareStatement("INSERT OR REPLACE INTO metadata_cache (config_key, table_name, value, " +
+					"update_time) values(?, ?, ?, ?)");
+			stat.setString(1, configKey);
+			stat.setString(2, tableName);
+			stat.setString(3, value);
+			stat.setLong(4, entry.updateTime);
+			stat.executeUpdate();
+		} catch (Exception e) {
+			// the memory cache still works without the config db
+			_LOG.warn("persist metadata cache failed: {}", e.getMessage());
+		} finally {
+			closeQuietly(null, stat, conn);
+		}
+	}
+
+	private static CacheEntry load(String configKey, String tableName) {
+		Connection conn = null;
+		PreparedStatement stat = null;
+		ResultSet rs = null;
+		try {
+			conn = openCacheDb();
+			stat = conn.prepareStatement("SELECT value, update_time FROM metadata_cache WHERE config_key = ? AND " +
+					"table_name = ?");
+			stat.setString(1, configKey);
+			stat.setString(2, tableName);
+			rs = stat.executeQuery();
+			return rs.next() ? new CacheEntry(rs.getString("value"), rs.getLong("update_time")) : null;
+		} catch (Exception e) {
+			_LOG.warn("load metadata cache failed: {}", e.getMessage());
+			return null;
+		} finally {
+			closeQuietly(rs, stat, conn);
+		}
+	}
+
+	private static Connection openCacheDb() throws Exception {
+		Connection conn = ConnectionManager.getConnection();
+		if (!cacheTableCreated) {
+			Statement stat = conn.createStatement();
+			try {
+				stat.executeUpdate("CREATE TABLE IF NOT EXISTS metadata_cache (config_key TEXT NOT NULL, table_name " +
+						"TEXT NOT NULL, value TEXT, update_time INTEGER, PRIMARY KEY (config_key, table_name))");
+				cacheTableCreated = true;
+			} finally {
+				stat.close();
+			}
+		}
+		return conn;
+	}
+
+	private static void closeQuietly(ResultSet rs, Statement stat, Connection conn) {
+		try {
+			if (rs != null) rs.close();
+			if (stat != null) stat.close();
+			if (conn != null) conn.close();
+		} catch (Exception e) {
+			_LOG.warn(e.getMessage());
+		}
+	}
+
+	private static class CacheEntry {
+
+		private final String value;
+
+		private final long updateTime;
+
+		CacheEntry(String value, long updateTime) {
+			this.value = value;
+			this.updateTime = updateTime;
+		}
+	}
+}
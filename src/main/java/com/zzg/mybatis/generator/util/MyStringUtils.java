@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.regex.Pattern;
 
 /**
  * Created by Owen on 6/18/16.
@@ -46,6 +47,40 @@ public class MyStringUtils {
             return (new StringBuilder()).append(Character.toLowerCase(s.charAt(0))).append(s.substring(1)).toString();
     }
 
+    /**
+     * check whether the table name matches one of the comma separated wildcard patterns, such as t_user*,t_order?,
+     * '*' or '%' matches any characters and '?' matches one character, case insensitive
+     *
+     * @param pattern
+     * @param tableName
+     * @return
+     */
+    public static boolean matchTableName(String pattern, String tableName) {
+        if (pattern == null || tableName == null) {
+            return false;
+        }
+        for (String part : pattern.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            StringBuilder regex = new StringBuilder();
+            for (char c : part.toCharArray()) {
+                if (c == '*' || c == '%') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            if (Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE).matcher(tableName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static String convertStreamToString(InputStream is) {
         /*
           * To convert the InputStream to String we use the BufferedReader.readLine()
@@ -0,0 +1,91 @@
+package com.zzg.mybatis.generator.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Type-ahead index over the table names of a connection, each name carries a value such as its tree item.
+ * <p>
+ * A plain filter matches name prefixes through binary search over the sorted names, a filter starting with * matches
+ * anywhere in the name. Matching is case insensitive and results keep the order the names were added in.
+ */
+public class TableNameIndex<T> {
+
+	private final List<String> names = new ArrayList<>();
+
+	private final List<String> lowerNames = new ArrayList<>();
+
+	private final List<T> values = new ArrayList<>();
+
+	/**
+	 * positions of the names sorted by lower case name, rebuilt lazily after adds
+	 */
+	private Integer[] sorted = new Integer[0];
+
+	public synchronized void add(String name, T value) {
+		names.add(name);
+		lowerNames.add(name.toLowerCase());
+		values.add(value);
+	}
+
+	public synchronized int size() {
+		return names.size();
+	}
+
+	public synchronized List<T> values() {
+		return new ArrayList<>(values);
+	}
+
+	public synchronized List<T> find(String filter) {
+		if (filter == null || filter.trim().isEmpty()) {
+			return values();
+		}
+		String text = filter.trim().toLowerCase();
+		List<T> result = new ArrayList<>();
+		if (text.startsWith("*")) {
+			text = text.substring(1);
+			for (int i = 0; i < lowerNames.size(); i++) {
+				if (lowerNames.get(i).contains(text)) {
+					result.add(values.get(i));
+				}
+			}
+			return result;
+		}
+		if (sorted.length != lowerNames.size()) {
+			sorted = new Integer[lowerNames.size()];
+			for (int i = 0; i < sorted.length; i++) {
+				sorted[i] = i;
+			}
+			Arrays.sort(sorted, Comparator.comparing(lowerNames::get));
+		}
+		int from = lowerBound(text);
+		List<Integer> positions = new ArrayList<>();
+		for (int i = from; i < sorted.length && lowerNames.get(sorted[i]).startsWith(text); i++) {
+			positions.add(sorted[i]);
+		}
+		positions.sort(null);
+		for (Integer position : positions) {
+			result.add(values.get(position));
+		}
+		return result;
+	}
+
+	/**
+	 * first position in the sorted names not less than the text
+	 */
+	private int lowerBound(String text) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (lowerNames.get(sorted[mid]).compareTo(text) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
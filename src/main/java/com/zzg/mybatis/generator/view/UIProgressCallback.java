@@ -1,48 +1,177 @@
 package com.zzg.mybatis.generator.view;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import com.zzg.mybatis.generator.bridge.TaskProgressCallback;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
 import javafx.scene.control.Alert;
-import org.mybatis.generator.api.ProgressCallback;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Progress dialog of a code generation run. The callbacks come from the generator thread and its workers, they only
+ * record the progress and a timeline refreshes the dialog on the FX thread. Closing the dialog or pressing cancel
+ * while running makes {@link #checkCancel()} abort the run.
+ * <p>
+ * The phases are counted in the order they start: the introspection and generation phases of MyBatis Generator
+ * followed by the pass of the bridge that adds the controller and pages and saves the files. A task counts once it
+ * finished, so the bar only gets full after the last table was written.
+ * <p>
  * Created by Owen on 6/21/16.
  */
-public class UIProgressCallback extends Alert implements ProgressCallback  {
+public class UIProgressCallback extends Alert implements TaskProgressCallback {
+
+	private static final String[] PHASE_NAMES = {"检查表结构", "生成代码", "生成页面并保存文件"};
+
+	private static final long REFRESH_MILLIS = 200;
+
+	private final Label phaseLabel = new Label("准备中");
+
+	private final Label taskLabel = new Label();
+
+	private final Label elapsedLabel = new Label();
+
+	private final ProgressBar progressBar = new ProgressBar(0);
+
+	private final Timeline refresher;
+
+	private final Button cancelButton;
+
+	private final long startTime = System.currentTimeMillis();
+
+	private final AtomicInteger finishedTasks = new AtomicInteger();
+
+	private volatile int phase = -1;
+
+	private volatile int phaseTasks;
+
+	private volatile String currentTask = "";
+
+	private volatile boolean cancelled;
 
-    private StringProperty progressText = new SimpleStringProperty();
+	private boolean running = true;
 
     public UIProgressCallback(AlertType alertType) {
 		super(alertType);
-		this.contentTextProperty().bindBidirectional(progressText);
+		setTitle("代码生成");
+		setHeaderText("代码生成中");
+		progressBar.setMaxWidth(Double.MAX_VALUE);
+		progressBar.setPrefWidth(400);
+		VBox content = new VBox(8, phaseLabel, progressBar, taskLabel, elapsedLabel);
+		content.setPadding(new Insets(10, 0, 0, 0));
+		getDialogPane().setContent(content);
+		ButtonType cancelType = new ButtonType("取消", ButtonBar.ButtonData.CANCEL_CLOSE);
+		getButtonTypes().setAll(cancelType);
+		cancelButton = (Button) getDialogPane().lookupButton(cancelType);
+		// keep the dialog open until the run really stopped
+		setOnCloseRequest(event -> {
+			if (running) {
+				cancel();
+				event.consume();
+			}
+		});
+		refresher = new Timeline(new KeyFrame(Duration.millis(REFRESH_MILLIS), event -> refresh()));
+		refresher.setCycleCount(Animation.INDEFINITE);
+		refresher.play();
     }
 
     @Override
     public void introspectionStarted(int totalTasks) {
-		progressText.setValue("开始代码检查");
+		startPhase(totalTasks);
 	}
 
     @Override
     public void generationStarted(int totalTasks) {
-		progressText.setValue("开始代码生成");
+		startPhase(totalTasks);
     }
 
     @Override
     public void saveStarted(int totalTasks) {
-		progressText.setValue("开始保存生成的文件");
+		startPhase(totalTasks);
     }
 
     @Override
     public void startTask(String taskName) {
-		progressText.setValue("代码生成任务开始");
+		currentTask = taskName;
     }
 
+	@Override
+	public void finishTask(String taskName) {
+		finishedTasks.incrementAndGet();
+	}
+
     @Override
     public void done() {
-		progressText.setValue("代码生成完成");
+		currentTask = "";
     }
 
     @Override
     public void checkCancel() throws InterruptedException {
+		if (cancelled) {
+			throw new InterruptedException("代码生成已取消");
+		}
     }
+
+	/**
+	 * Ask the running generation to stop, it stops at its next {@link #checkCancel()}
+	 */
+	public void cancel() {
+		cancelled = true;
+		cancelButton.setDisable(true);
+		setHeaderText("正在取消...");
+	}
+
+	/**
+	 * Called on the FX thread when the run succeeded
+	 */
+	public void succeeded() {
+		stop("代码生成完成");
+		progressBar.setProgress(1);
+	}
+
+	/**
+	 * Called on the FX thread when the run failed or was cancelled
+	 */
+	public void failed(Throwable e) {
+		stop(e instanceof InterruptedException ? "代码生成已取消" : "代码生成失败");
+	}
+
+	private void startPhase(int totalTasks) {
+		finishedTasks.set(0);
+		phaseTasks = totalTasks;
+		phase++;
+	}
+
+	private void stop(String header) {
+		running = false;
+		refresher.stop();
+		refresh();
+		setHeaderText(header);
+		cancelButton.setText("关闭");
+		cancelButton.setDisable(false);
+	}
+
+	private void refresh() {
+		int currentPhase = phase;
+		int total = phaseTasks;
+		int finished = finishedTasks.get();
+		if (currentPhase >= 0) {
+			String name = currentPhase < PHASE_NAMES.length ? PHASE_NAMES[currentPhase] : PHASE_NAMES[PHASE_NAMES.length - 1];
+			// MyBatis Generator doesn't know the task count of its generation phase
+			phaseLabel.setText(total > 0 ? String.format("%s (%d/%d)", name, Math.min(finished, total), total)
+					: String.format("%s (%d)", name, finished));
+			double phaseProgress = total > 0 ? Math.min(1, (double) finished / total) : 0;
+			progressBar.setProgress(Math.min(1, (currentPhase + phaseProgress) / PHASE_NAMES.length));
+		}
+		taskLabel.setText(currentTask);
+		elapsedLabel.setText(String.format("已用时 %.1f 秒", (System.currentTimeMillis() - startTime) / 1000.0));
+	}
 }
@@ -0,0 +1,796 @@
+package {{modelPackage}};
+
+import {{daoPackage}}.{{fileName}}Mapper;
+import {{modelPackage}}.{{fileName}};
+import {{modelPackage}}.{{fileName}}Req;
+{{#streamJson}}
+import com.fasterxml.jackson.databind.ObjectMapper;
+{{/streamJson}}
+import com.tuniu.operation.platform.tsg.base.core.annotation.Json;
+import com.tuniu.operation.platform.tsg.base.core.utils.JsonUtil;
+import com.tuniu.operation.platform.tsg.base.core.utils.ResponseVo;
+import org.apache.commons.codec.binary.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+{{#asyncQuery}}
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+{{/asyncQuery}}
+import org.springframework.stereotype.Controller;
+{{#deleteByIds}}
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+{{/deleteByIds}}
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+{{#asyncQuery}}
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+{{/asyncQuery}}
+
+{{#asyncQuery}}
+import javax.annotation.PreDestroy;
+{{/asyncQuery}}
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+{{#streamJson}}
+import java.io.OutputStream;
+{{/streamJson}}
+{{^streamJson}}
+{{#asyncQuery}}
+import java.io.OutputStream;
+{{/asyncQuery}}
+import java.io.PrintWriter;
+{{/streamJson}}
+{{#streamJson}}
+import java.text.SimpleDateFormat;
+{{/streamJson}}
+{{#batchUpdate}}
+import java.util.ArrayList;
+{{/batchUpdate}}
+{{#deleteByIds}}
+import java.util.Arrays;
+{{/deleteByIds}}
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+{{#asyncQuery}}
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+{{/asyncQuery}}
+{{#countCached}}
+import java.util.concurrent.ConcurrentHashMap;
+{{/countCached}}
+{{#asyncQuery}}
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+{{/asyncQuery}}
+{{#compactLog}}
+import java.util.concurrent.atomic.AtomicLong;
+{{/compactLog}}
+{{#streamJson}}
+import java.util.zip.GZIPOutputStream;
+{{/streamJson}}
+
+@Controller
+@RequestMapping("/{{fileNameLower}}")
+public class {{fileName}}Controller {
+    private static final Logger LOGGER = LoggerFactory.getLogger({{fileName}}Controller.class);
+
+    @Resource
+    private {{fileName}}Mapper {{fileNameLower}}Mapper;
+{{#compactLog}}
+
+    /**
+     * 每LOG_SAMPLE_EVERY个请求记录一次日志, 查询参数最多记录LOG_MAX_LENGTH个字符, 查询结果只记录行数.
+     * 异常都会记录
+     */
+    private static final int LOG_SAMPLE_EVERY = {{logSampleEvery}};
+
+    private static final int LOG_MAX_LENGTH = {{logMaxLength}};
+
+    private final AtomicLong logCounter = new AtomicLong();
+{{/compactLog}}
+{{#streamJson}}
+
+    /**
+     * 直接输出JSON时使用, 日期格式和列表页面显示的一致
+     */
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper().setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+{{/streamJson}}
+{{#deleteByIds}}
+
+    /**
+     * 批量删除时每条delete语句的id个数, 受数据库对语句参数个数和in列表长度的限制
+     */
+    private static final int DELETE_IDS_PER_STATEMENT = {{deleteIdsPerStatement}};
+{{/deleteByIds}}
+{{#batchUpdate}}
+
+    @Resource
+    private {{fileName}}Service {{fileNameLower}}Service;
+{{/batchUpdate}}
+{{#batchInsert}}
+
+    /**
+     * 批量保存时每条insert语句的行数, 受数据库对语句参数个数的限制
+     */
+    private static final int BATCH_INSERT_ROWS = {{batchRows}};
+{{/batchInsert}}
+{{#countCached}}
+
+    /**
+     * 同样的查询条件在这段时间内不再重新统计总数
+     */
+    private static final long COUNT_CACHE_MILLIS = 30000;
+
+    private static final int COUNT_CACHE_SIZE = 1000;
+
+    /**
+     * 查询条件 -> {总数, 过期时间}, 增删改之后清空
+     */
+    private final Map<String, long[]> countCache = new ConcurrentHashMap<String, long[]>();
+{{/countCached}}
+{{#asyncQuery}}
+
+    /**
+     * 查询线程数和排队的查询数. 查询在这个表自己的线程池中执行, 慢查询不占用servlet线程, 也不影响其他表的接口
+     */
+    private static final int QUERY_THREADS = {{queryThreads}};
+
+    private static final int QUERY_QUEUE_SIZE = {{queryQueueSize}};
+
+    /**
+     * 各接口等待查询结果的时间, 超时返回失败
+     */
+    private static final long QUERY_LIST_TIMEOUT_MILLIS = {{queryListTimeoutMillis}};
+{{#keyset}}
+
+    private static final long QUERY_PAGE_TIMEOUT_MILLIS = {{queryPageTimeoutMillis}};
+{{/keyset}}
+
+    private final ThreadPoolExecutor queryExecutor = newQueryExecutor();
+{{/asyncQuery}}
+
+{{^asyncQuery}}
+@RequestMapping(value = "/query", method = RequestMethod.GET)
+@ResponseBody
+public void query{{fileName}}List(@Json {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request,
+                HttpServletResponse response) throws IOException {
+{{^streamJson}}
+    PrintWriter writer = null;
+{{/streamJson}}
+    ResponseVo responseVo = new ResponseVo();
+    response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+    writer = response.getWriter();
+{{/streamJson}}
+{{/asyncQuery}}
+{{#asyncQuery}}
+    @RequestMapping(value = "/query", method = RequestMethod.GET)
+    @ResponseBody
+    public DeferredResult<ResponseEntity<StreamingResponseBody>> query{{fileName}}List(
+            @Json final {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        return submitQuery("query{{fileName}}List", QUERY_LIST_TIMEOUT_MILLIS, {{#streamJson}}request, {{/streamJson}}new Callable<ResponseVo>() {
+            @Override
+            public ResponseVo call() {
+                return doQuery{{fileName}}List({{fileNameLower}}Req);
+            }
+        });
+    }
+
+private ResponseVo doQuery{{fileName}}List({{fileName}}Req {{fileNameLower}}Req) {
+    ResponseVo responseVo = new ResponseVo();
+{{/asyncQuery}}
+    try {
+{{#compactLog}}
+        boolean logged = logSampled();
+        if (logged) {
+            LOGGER.info("query{{fileName}}List param:{}", abbreviate({{fileNameLower}}Req));
+        }
+{{/compactLog}}
+{{^compactLog}}
+        LOGGER.info("query{{fileName}}List param:{}", JsonUtil.toString({{fileNameLower}}Req));
+{{/compactLog}}
+{{#countExact}}
+        List<{{listType}}> {{fileNameLower}}List = {{fileNameLower}}Mapper.{{listQuery}}({{fileNameLower}}Req);
+        int count = {{fileNameLower}}Mapper.query{{fileName}}Count({{fileNameLower}}Req);
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("count", count);
+        map.put("rows", {{fileNameLower}}List);
+{{/countExact}}
+{{#countHasMore}}
+        // 不统计总数, 多取一行判断是否还有下一页
+        int limit = {{fileNameLower}}Req.getLimit();
+        {{fileNameLower}}Req.setLimit(limit + 1);
+        List<{{listType}}> {{fileNameLower}}List = {{fileNameLower}}Mapper.{{listQuery}}({{fileNameLower}}Req);
+        {{fileNameLower}}Req.setLimit(limit);
+        boolean hasMore = {{fileNameLower}}List.size() > limit;
+        if (hasMore) {
+            {{fileNameLower}}List = {{fileNameLower}}List.subList(0, limit);
+        }
+        Map<String, Object> map = new HashMap<String, Object>();
+        // 列表按总数分页, 给出已经知道的行数, 有下一页时多算一行
+        map.put("count", {{fileNameLower}}Req.getStart() + {{fileNameLower}}List.size() + (hasMore ? 1 : 0));
+        map.put("hasMore", hasMore);
+        map.put("rows", {{fileNameLower}}List);
+{{/countHasMore}}
+{{#countCached}}
+        List<{{listType}}> {{fileNameLower}}List = {{fileNameLower}}Mapper.{{listQuery}}({{fileNameLower}}Req);
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("count", query{{fileName}}Count({{fileNameLower}}Req));
+        map.put("rows", {{fileNameLower}}List);
+{{/countCached}}
+{{#compactLog}}
+        if (logged) {
+            LOGGER.info("query{{fileName}}List result rows:{}", {{fileNameLower}}List.size());
+        }
+{{/compactLog}}
+        responseVo.setData(map);
+        responseVo.setSuccess(true);
+    } catch (Exception e) {
+        LOGGER.error("查询异常", e);
+        responseVo.setSuccess(false);
+        responseVo.setMsg("查询异常");
+    }
+{{^compactLog}}
+    LOGGER.info("query{{fileName}}List result:{}", JsonUtil.toString(responseVo));
+{{/compactLog}}
+{{#asyncQuery}}
+    return responseVo;
+{{/asyncQuery}}
+{{^asyncQuery}}
+{{#streamJson}}
+    writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+    writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+{{/asyncQuery}}
+}
+{{#countCached}}
+
+    /**
+     * 翻页时查询条件不变, 总数从缓存中取{{#tableStatistics}}, 没有查询条件时用表统计信息中的行数估算{{/tableStatistics}}
+     */
+    private int query{{fileName}}Count({{fileName}}Req {{fileNameLower}}Req) {
+        String key = {{fileNameLower}}Req.filterKey();
+        long now = System.currentTimeMillis();
+        long[] cached = countCache.get(key);
+        if (cached != null && cached[1] > now) {
+            return (int) cached[0];
+        }
+{{#tableStatistics}}
+        Integer count = null;
+        if (!{{fileNameLower}}Req.hasFilter()) {
+            count = {{fileNameLower}}Mapper.query{{fileName}}EstimatedCount();
+        }
+        if (count == null) {
+            count = {{fileNameLower}}Mapper.query{{fileName}}Count({{fileNameLower}}Req);
+        }
+{{/tableStatistics}}
+{{^tableStatistics}}
+        int count = {{fileNameLower}}Mapper.query{{fileName}}Count({{fileNameLower}}Req);
+{{/tableStatistics}}
+        if (countCache.size() >= COUNT_CACHE_SIZE) {
+            countCache.clear();
+        }
+        countCache.put(key, new long[]{count, now + COUNT_CACHE_MILLIS});
+        return count;
+    }
+{{/countCached}}
+{{#keyset}}
+{{^asyncQuery}}
+    @RequestMapping(value = "/queryPage", method = RequestMethod.GET)
+    @ResponseBody
+    public void query{{fileName}}Page(@Json {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+{{/asyncQuery}}
+{{#asyncQuery}}
+    @RequestMapping(value = "/queryPage", method = RequestMethod.GET)
+    @ResponseBody
+    public DeferredResult<ResponseEntity<StreamingResponseBody>> query{{fileName}}Page(
+            @Json final {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        return submitQuery("query{{fileName}}Page", QUERY_PAGE_TIMEOUT_MILLIS, {{#streamJson}}request, {{/streamJson}}new Callable<ResponseVo>() {
+            @Override
+            public ResponseVo call() {
+                return doQuery{{fileName}}Page({{fileNameLower}}Req);
+            }
+        });
+    }
+
+    private ResponseVo doQuery{{fileName}}Page({{fileName}}Req {{fileNameLower}}Req) {
+        ResponseVo responseVo = new ResponseVo();
+{{/asyncQuery}}
+        try {
+{{#compactLog}}
+            boolean logged = logSampled();
+            if (logged) {
+                LOGGER.info("query{{fileName}}Page param:{}", abbreviate({{fileNameLower}}Req));
+            }
+{{/compactLog}}
+{{^compactLog}}
+            LOGGER.info("query{{fileName}}Page param:{}", JsonUtil.toString({{fileNameLower}}Req));
+{{/compactLog}}
+            List<{{fileName}}> {{fileNameLower}}List = {{fileNameLower}}Mapper.query{{fileName}}Page({{fileNameLower}}Req);
+            Map<String, Object> map = new HashMap<String, Object>();
+            map.put("rows", {{fileNameLower}}List);
+            // 下一页的游标是本页最后一行的主键, 本页不满时没有下一页
+            if (!{{fileNameLower}}List.isEmpty() && {{fileNameLower}}List.size() >= {{fileNameLower}}Req.getLimit()) {
+                {{fileName}} last = {{fileNameLower}}List.get({{fileNameLower}}List.size() - 1);
+                Map<String, Object> nextCursor = new HashMap<String, Object>();
+{{#keyColumns}}
+                nextCursor.put("{{cursor}}", last.{{getter}}());
+{{/keyColumns}}
+                map.put("nextCursor", nextCursor);
+            }
+{{#compactLog}}
+            if (logged) {
+                LOGGER.info("query{{fileName}}Page result rows:{}", {{fileNameLower}}List.size());
+            }
+{{/compactLog}}
+            responseVo.setData(map);
+            responseVo.setSuccess(true);
+        } catch (Exception e) {
+            LOGGER.error("查询异常", e);
+            responseVo.setSuccess(false);
+            responseVo.setMsg("查询异常");
+        }
+{{^compactLog}}
+        LOGGER.info("query{{fileName}}Page result:{}", JsonUtil.toString(responseVo));
+{{/compactLog}}
+{{#asyncQuery}}
+        return responseVo;
+{{/asyncQuery}}
+{{^asyncQuery}}
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+{{/asyncQuery}}
+    }
+{{/keyset}}
+    @RequestMapping(value = "/save", method = RequestMethod.POST)
+    @ResponseBody
+    public void save{{fileName}}(@Json {{fileName}} {{fileNameLower}}, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+        try {
+{{^compactLog}}
+            LOGGER.info("save{{fileName}}'s param:{}", JsonUtil.toString({{fileNameLower}}));
+{{/compactLog}}
+            int count = {{fileNameLower}}Mapper.insertSelective({{fileNameLower}});
+{{#compactLog}}
+            if (logSampled()) {
+                LOGGER.info("save{{fileName}}{{#keyColumns}} {{property}}:{}{{/keyColumns}}"{{#keyColumns}}, {{fileNameLower}}.{{getter}}(){{/keyColumns}});
+            }
+{{/compactLog}}
+            responseVo.setData(count);
+{{#countCached}}
+            countCache.clear();
+{{/countCached}}
+            responseVo.setSuccess(true);
+        } catch (Exception e) {
+            LOGGER.error("保存异常", e);
+            responseVo.setMsg("保存异常");
+            responseVo.setSuccess(false);
+        }
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+    }
+{{#batchInsert}}
+    @RequestMapping(value = "/batchSave", method = RequestMethod.POST)
+    @ResponseBody
+    public void batchSave{{fileName}}(@Json {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+        try {
+            List<{{recordType}}> rows = {{fileNameLower}}Req.getRows();
+{{#compactLog}}
+            if (logSampled()) {
+                LOGGER.info("batchSave{{fileName}}'s rows:{}", rows == null ? 0 : rows.size());
+            }
+{{/compactLog}}
+{{^compactLog}}
+            LOGGER.info("batchSave{{fileName}}'s rows:{}", rows == null ? 0 : rows.size());
+{{/compactLog}}
+            int count = 0;
+            for (int from = 0; rows != null && from < rows.size(); from += BATCH_INSERT_ROWS) {
+                count += {{fileNameLower}}Mapper.batchInsert(rows.subList(from, Math.min(from + BATCH_INSERT_ROWS, rows.size())));
+            }
+            responseVo.setData(count);
+{{#countCached}}
+            countCache.clear();
+{{/countCached}}
+            responseVo.setSuccess(true);
+        } catch (Exception e) {
+            LOGGER.error("批量保存异常", e);
+            responseVo.setMsg("批量保存异常");
+            responseVo.setSuccess(false);
+        }
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+    }
+{{/batchInsert}}
+    @RequestMapping(value = "/findById", method = RequestMethod.POST)
+    @ResponseBody
+    public void find{{fileName}}ById(@Json {{fileName}} {{fileNameLower}}, HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+        try {
+            {{fileName}} {{fileNameLower}}Entity = {{fileNameLower}}Mapper.selectByPrimaryKey({{primaryKeyArgs}});
+            responseVo.setData({{fileNameLower}}Entity);
+            responseVo.setSuccess(true);
+        }catch (Exception e) {
+            LOGGER.error("查询单条记录异常", e);
+            responseVo.setMsg("查询单条记录异常");
+            responseVo.setSuccess(false);
+        }
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+    }
+    @RequestMapping(value="/delete", method = RequestMethod.POST)
+    @ResponseBody
+{{#deleteByIds}}
+    @Transactional(rollbackFor = Exception.class)
+{{/deleteByIds}}
+    public void delete{{fileName}}(@Json {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+        try {
+{{#compactLog}}
+            if (logSampled()) {
+                LOGGER.info("delete{{fileName}} ids:{}", {{fileNameLower}}Req.getIdList() == null ? 0 : {{fileNameLower}}Req.getIdList().length);
+            }
+{{/compactLog}}
+{{^compactLog}}
+            LOGGER.info("delete{{fileName}}'s param:{}", JsonUtil.toString({{fileNameLower}}Req));
+{{/compactLog}}
+{{#deleteByIds}}
+            long[] idList = {{fileNameLower}}Req.getIdList();
+            int count = 0;
+            for (int from = 0; idList != null && from < idList.length; from += DELETE_IDS_PER_STATEMENT) {
+                count += {{fileNameLower}}Mapper.deleteByIds(Arrays.copyOfRange(idList, from,
+                        Math.min(from + DELETE_IDS_PER_STATEMENT, idList.length)));
+            }
+            responseVo.setData(count);
+{{/deleteByIds}}
+{{^deleteByIds}}
+            long[] idList = {{fileNameLower}}Req.getIdList();
+            for (long id : idList) {
+                {{fileNameLower}}Mapper.deleteByPrimaryKey(id);
+            }
+{{/deleteByIds}}
+{{#countCached}}
+            countCache.clear();
+{{/countCached}}
+            responseVo.setSuccess(true);
+        }catch (Exception e) {
+            LOGGER.error("删除异常", e);
+{{#deleteByIds}}
+            // 分成几条语句删除时, 已经删除的部分一起回滚
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            }
+{{/deleteByIds}}
+            responseVo.setMsg("删除异常");
+            responseVo.setSuccess(false);
+        }
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+    }
+{{#batchUpdate}}
+    @RequestMapping(value="/batchUpdate", method = RequestMethod.POST)
+    @ResponseBody
+    public void batchUpdate{{fileName}}(@Json {{fileName}}Req {{fileNameLower}}Req, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+        try {
+            List<{{recordType}}> rows = {{fileNameLower}}Req.getRows();
+{{#compactLog}}
+            if (logSampled()) {
+                LOGGER.info("batchUpdate{{fileName}}'s rows:{}", rows == null ? 0 : rows.size());
+            }
+{{/compactLog}}
+{{^compactLog}}
+            LOGGER.info("batchUpdate{{fileName}}'s rows:{}", rows == null ? 0 : rows.size());
+{{/compactLog}}
+            List<Integer> chunkCounts = rows == null ? new ArrayList<Integer>()
+                    : {{fileNameLower}}Service.batchUpdate(rows);
+            int count = 0;
+            for (int chunkCount : chunkCounts) {
+                count += chunkCount;
+            }
+            Map<String, Object> map = new HashMap<String, Object>();
+            map.put("count", count);
+            map.put("chunkCounts", chunkCounts);
+            responseVo.setData(map);
+{{#countCached}}
+            countCache.clear();
+{{/countCached}}
+            responseVo.setSuccess(true);
+        } catch (Exception e) {
+            LOGGER.error("批量修改异常", e);
+            responseVo.setMsg("批量修改异常");
+            responseVo.setSuccess(false);
+        }
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+    }
+{{/batchUpdate}}
+@RequestMapping(value="/update", method = RequestMethod.POST)
+    @ResponseBody
+    public void update{{fileName}} (@Json {{fileName}} {{fileNameLower}}, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+{{^streamJson}}
+        PrintWriter writer = null;
+{{/streamJson}}
+        ResponseVo responseVo = new ResponseVo();
+        response.setHeader("Access-Control-Allow-Origin", "*");
+{{^streamJson}}
+        writer = response.getWriter();
+{{/streamJson}}
+        try {
+{{#compactLog}}
+            if (logSampled()) {
+                LOGGER.info("update{{fileName}}{{#keyColumns}} {{property}}:{}{{/keyColumns}}"{{#keyColumns}}, {{fileNameLower}}.{{getter}}(){{/keyColumns}});
+            }
+{{/compactLog}}
+{{^compactLog}}
+            LOGGER.info("update{{fileName}}'s param:{}", JsonUtil.toString({{fileNameLower}}));
+{{/compactLog}}
+            int count = {{fileNameLower}}Mapper.updateByPrimaryKeySelective({{fileNameLower}});
+            responseVo.setData(count);
+{{#countCached}}
+            countCache.clear();
+{{/countCached}}
+            responseVo.setSuccess(true);
+        } catch (Exception e) {
+            LOGGER.error("修改异常", e);
+            responseVo.setMsg("修改异常");
+            responseVo.setSuccess(false);
+        }
+{{#streamJson}}
+        writeResponse(request, response, responseVo);
+{{/streamJson}}
+{{^streamJson}}
+        writer.print(Base64.encodeBase64String(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+    }
+{{#streamJson}}
+
+    /**
+     * 把结果写到响应的输出流中. 请求接受application/json时直接输出JSON, 否则和以前一样输出Base64编码的JSON;
+     * 请求接受gzip时压缩输出
+     */
+    private void writeResponse(HttpServletRequest request, HttpServletResponse response, ResponseVo responseVo)
+            throws IOException {
+        String accept = request.getHeader("Accept");
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        boolean json = accept != null && accept.contains("application/json");
+        response.addHeader("Vary", "Accept, Accept-Encoding");
+        if (json) {
+            response.setContentType("application/json;charset=UTF-8");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        writeBody(response.getOutputStream(), responseVo, json, gzip);
+    }
+
+    private void writeBody(OutputStream out, ResponseVo responseVo, boolean json, boolean gzip) throws IOException {
+        if (gzip) {
+            out = new GZIPOutputStream(out, 8192);
+        }
+        try {
+            if (json) {
+                JSON_MAPPER.writeValue(out, responseVo);
+            } else {
+                out.write(Base64.encodeBase64(JsonUtil.toString(responseVo).getBytes("utf-8")));
+            }
+        } finally {
+            out.close();
+        }
+    }
+{{/streamJson}}
+{{#asyncQuery}}
+
+    /**
+     * 在查询线程池中执行查询, servlet线程立即返回. 排队满时不再排队, 直接返回失败; 超时时返回失败并中断查询.
+     * DispatcherServlet和它前面的filter要配置async-supported
+     */
+    private DeferredResult<ResponseEntity<StreamingResponseBody>> submitQuery(final String name,
+                                                                              final long timeoutMillis,
+{{#streamJson}}
+                                                                              HttpServletRequest request,
+{{/streamJson}}
+                                                                              final Callable<ResponseVo> query) {
+{{#streamJson}}
+        // 查询结束时请求可能已经超时结束, 请求头要先取出来
+        String accept = request.getHeader("Accept");
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        final boolean json = accept != null && accept.contains("application/json");
+        final boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+{{/streamJson}}
+        final DeferredResult<ResponseEntity<StreamingResponseBody>> deferredResult =
+                new DeferredResult<ResponseEntity<StreamingResponseBody>>(timeoutMillis);
+        final Future<?> future;
+        try {
+            future = queryExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        deferredResult.setResult(toResponseEntity(query.call(){{#streamJson}}, json, gzip{{/streamJson}}, HttpStatus.OK));
+                    } catch (Exception e) {
+                        deferredResult.setErrorResult(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("{} rejected, {} queries queued", name, queryExecutor.getQueue().size());
+            deferredResult.setResult(failure("查询繁忙, 请稍后重试"{{#streamJson}}, json, gzip{{/streamJson}}));
+            return deferredResult;
+        }
+        deferredResult.onTimeout(new Runnable() {
+            @Override
+            public void run() {
+                LOGGER.warn("{} timed out after {}ms", name, timeoutMillis);
+                future.cancel(true);
+                deferredResult.setResult(failure("查询超时"{{#streamJson}}, json, gzip{{/streamJson}}));
+            }
+        });
+        return deferredResult;
+    }
+
+    private ResponseEntity<StreamingResponseBody> failure(String msg{{#streamJson}}, boolean json, boolean gzip{{/streamJson}}) {
+        ResponseVo responseVo = new ResponseVo();
+        responseVo.setSuccess(false);
+        responseVo.setMsg(msg);
+        return toResponseEntity(responseVo{{#streamJson}}, json, gzip{{/streamJson}}, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * 结果在写响应时才序列化到响应的输出流中, 不在内存中生成整个响应
+     */
+    private ResponseEntity<StreamingResponseBody> toResponseEntity(final ResponseVo responseVo{{#streamJson}}, final boolean json,
+                                                                   final boolean gzip{{/streamJson}}, HttpStatus status) {
+        HttpHeaders headers = new HttpHeaders();
+{{#streamJson}}
+        headers.add("Vary", "Accept, Accept-Encoding");
+        headers.setContentType(json ? MediaType.parseMediaType("application/json;charset=UTF-8") : MediaType.TEXT_PLAIN);
+        if (gzip) {
+            headers.set("Content-Encoding", "gzip");
+        }
+{{/streamJson}}
+{{^streamJson}}
+        headers.setContentType(MediaType.TEXT_PLAIN);
+{{/streamJson}}
+        StreamingResponseBody body = new StreamingResponseBody() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+{{#streamJson}}
+                writeBody(out, responseVo, json, gzip);
+{{/streamJson}}
+{{^streamJson}}
+                out.write(Base64.encodeBase64(JsonUtil.toString(responseVo).getBytes("utf-8")));
+{{/streamJson}}
+            }
+        };
+        return new ResponseEntity<StreamingResponseBody>(body, headers, status);
+    }
+
+    /**
+     * 空闲的线程一分钟后退出, 表多的项目不会一直占着每个表的查询线程
+     */
+    private ThreadPoolExecutor newQueryExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(QUERY_THREADS, QUERY_THREADS,
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUERY_QUEUE_SIZE), new ThreadFactory() {
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "{{fileNameLower}}-query-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdownQueryExecutor() {
+        queryExecutor.shutdownNow();
+    }
+{{/asyncQuery}}
+{{#compactLog}}
+
+    private boolean logSampled() {
+        return LOGGER.isInfoEnabled() && logCounter.incrementAndGet() % LOG_SAMPLE_EVERY == 0;
+    }
+
+    private static String abbreviate(Object param) {
+        String json = JsonUtil.toString(param);
+        return json == null || json.length() <= LOG_MAX_LENGTH ? json
+                : json.substring(0, LOG_MAX_LENGTH) + "...(" + json.length() + " chars)";
+    }
+{{/compactLog}}
+}
@@ -0,0 +1,259 @@
+function {{fileName}}Create(config, datas) {
+    var win;
+    var html = config.showContent;
+    html.show();
+    var $detailContent = config.showContent;
+    initWindow(datas);
+    
+    $detailContent.find("legend").text(initFieldSet(datas));
+    var buttons = initWindowButtons(datas);
+    var title=initWindowTitle(datas);
+    win = new WinForm({
+        title: title,
+        node: html,
+        cancelText: '关闭',
+        css: {
+            top: "50px",
+            width: "30%",
+            left: "35%"
+        },
+        buttons: buttons
+    });
+    //最后时刻返回win对象
+    return win;
+    $.extend(this, config, {
+        noty: new Noty(),
+        ver: new Ver()
+    });
+    /**
+     *功能说明 初始化窗口
+     */
+    function initWindow(datas) {
+        if (datas.operate != "add") {
+            showData(datas.data);
+        }
+
+        if (datas.operate == "edit") {
+            $detailContent.find("input").removeAttr("disabled", true);
+        }
+        if (datas.operate == "view") {
+            $detailContent.find("input").attr("disabled", true);
+        } else {
+            bindBlurFunction();
+        }
+    }
+
+    function initWindowButtons(datas) {
+        var buttons = [{
+            name: "<i class='icon-ok'></i>确认",
+            class: "btn btn-primary occupy trackAnaly_272",
+            click: function() {
+                var errorItem = $(".ver-error");
+                if (errorItem.length < 1) {
+                    if (datas.operate == "add" || datas.operate == "copy") {
+                        save(datas);
+                    } else if (datas.operate == "edit") {
+                        update(datas);
+                    }
+                }
+            }
+        }, {
+            name: "<i class='icon-refresh'></i>重置",
+            class: "btn btn-primary occupy trackAnaly_272",
+            click: function() {
+                reset(datas);
+            }
+        }, {
+            name: "<i class='icon-remove'></i>关闭",
+            class: "btn btn-danger",
+            click: function() {
+                win.hide();
+            }
+        }];
+        var lastButtons = [];
+        if (datas.operate == "edit") {
+            lastButtons.push(buttons[0]);
+            lastButtons.push(buttons[2]);
+        } else if (datas.operate == "view") {
+        } else {
+            lastButtons = buttons;
+        }
+        return lastButtons;
+    }
+
+    /**
+     *功能说明 初始化窗口标题
+     */
+    function initWindowTitle(datas) {
+        var title = "";
+        if (datas.operate == "add") {
+            title += "新增";
+        } else if (datas.operate == "edit") {
+            title += "编辑";
+        } else if (datas.operate == "view") {
+            title += "详情";
+        }
+        return title;
+    }
+
+    function initFieldSet(datas) {
+        var title = "";
+        if (datas.operate == "add") {
+            title += "新增页面";
+        } else if (datas.operate == "edit") {
+            title += "编辑页面";
+        } else if (datas.operate == "view") {
+            title += "详情页面";
+        }
+        return title;
+    }
+
+    /**
+     *功能说明 给控件绑定blur事件
+     */
+    function bindBlurFunction() {
+        $detailContent.find(".validate").blur(function(e) {
+            var target = e.currentTarget;
+            $(target).removeAttr("data-original-title").removeClass("ver-error");
+            var val = $(target).val();
+            if (val == "") {
+                $(target).addClass("ver-error").attr("data-original-title", placeholder + "不存在").tooltip();
+            }
+        });
+    }
+
+    /**
+     *功能说明 重置
+     */
+    function reset(datas) {
+        //初始化控件提示状态
+        initControlsTipState();
+        $detailContent.find("input[type='text']").val("");
+    }
+
+    function save(datas) {
+        var submitData = createData(datas);
+        if (!checkDataValid()) {
+            return;
+        }
+        tn.ajax.request({
+            type: "POST",
+{{#streamJson}}
+            dataType: "json",
+{{/streamJson}}
+            data: submitData,
+            url: getAction().save,
+            listener: {
+                success: function(json) {
+                    if (tn.type.isNull(json) || !tn.type.isObject(json) || tn.type.isNull(json.success)) {
+                        //self.noty.error();
+                        alert(json.msg);
+                    }
+                    if (json.success === false) {
+                        //self.noty.error(json.msg);
+                        alert(json.msg);
+                    }
+                    if (json.success === true) {
+                        config.noty.info("保存成功");
+                        closeWindow();
+                    }
+                }
+            }
+        });
+    }
+
+    function update(datas) {
+        var submitData = createData(datas);
+        tn.ajax.request({
+            type: "POST",
+{{#streamJson}}
+            dataType: "json",
+{{/streamJson}}
+            data: submitData,
+            url: getAction().update,
+            listener: {
+                success: function(json) {
+                    if (tn.type.isNull(json) || !tn.type.isObject(json) || tn.type.isNull(json.success)) {
+                        //self.noty.error();
+                        alert(json.msg);
+                    }
+                    if (json.success === false) {
+                        //self.noty.error(json.msg);
+                        alert(json.msg);
+                    }
+                    if (json.success === true) {
+                        config.noty.info("修改成功");
+                        closeWindow();
+                    }
+                }
+            }
+        });
+    }
+
+    /*功能说明 关闭窗口
+     */
+    function closeWindow() {
+        win.hide();
+        config.reloadList.call(config);
+    }
+
+
+    /**
+     *功能说明 页面显示数据
+     */
+    function showData(data) {
+{{#formFields}}
+        $detailContent.find("input[name='{{name}}']").val(data.{{name}});
+{{/formFields}}
+    }
+
+    function checkDataValid(){
+{{#formFields}}
+        var {{name}} = $detailContent.find("input[name='{{name}}']").val();
+        if ({{name}} == "") {
+            $detailContent.find("input[name='{{name}}']").addClass("ver-error").attr("data-original-title","{{label}}不能为空").tooltip();
+        }
+{{/formFields}}
+        if ($detailContent.find(".ver-error").length>0) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     *功能说明 构造保存数据
+     */
+    function createData(datas) {
+        var submitData = config.util.form.get($detailContent);
+        if (datas.operate == 'edit') {
+            submitData.id = datas.data.id;
+        }
+        submitData.opUid = tn.cookie.get("honeydukesUid");
+        submitData.opName = tn.Base64.decode(tn.cookie.get("honeydukesUname"));
+        return submitData;
+    }
+
+    /**
+     *功能说明 初始化控件提示状态
+     */
+    function initControlsTipState() {
+        $detailContent.find("input").removeClass('ver-error').removeAttr('data-original-title');
+    }
+    /**
+     *页面AJAX请求URL统一处理
+     */
+    function getAction() {
+        if (config.devcfg) {
+            return {
+                save: config.protectedSystem.server.ASR + "{{fileNameLower}}/save",
+                update: config.protectedSystem.server.ASR + "{{fileNameLower}}/update",
+            };
+        } else {
+            return {
+                save: config.protectedSystem.server.ASR + "{{fileNameLower}}/save",
+                update: config.protectedSystem.server.ASR + "{{fileNameLower}}/update",
+            };
+        }
+
+    }
+}
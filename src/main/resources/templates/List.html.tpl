@@ -0,0 +1,127 @@
+<!DOCTYPE HTML>
+<html>
+
+<head>
+    <meta http-equiv="Content-Type" content="text/html; charset=utf-8">
+    <title>查询</title>
+    <script type="text/javascript" src="../../../jsrc/modules/importCss.js"></script>
+    <link href="../css/reset.css" rel="stylesheet" type="text/css">
+    <script type='text/javascript' src='../../../jsrc/modules/jquery-1.7.2.js'></script>
+    <script type="text/javascript" src="../../../jsrc/modules/importJS.js"></script>
+    <script type='text/javascript' src='../../../jsrc/modules/tn/TNQuoteGridPanel/TNQuoteGridPanel.js'></script>
+    <script type="text/javascript" src="../../../jsrc/modules/tn/TNSearch/DynamicTNSearch.js"></script>
+    <script>
+    $import("com.tuniu.portal.PortalApp", function(PortalApp) {
+        $(function() {
+            PortalApp.getInstance().init("{{fileName}}List", "FLT", "NAP");
+        });
+    });
+    </script>
+    <style>
+    .padding {
+        padding-left: 20px;
+    }
+    
+    html {
+        overflow-x: scroll !important;
+        min-width: 1360px;
+    }
+    
+    .select-medium {
+        height: 29px;
+        width: 154px;
+    }
+    
+    .input-mini-cell {
+        width: 65px;
+    }
+    
+    .tngpBody td {
+        font-family: Monaco;
+    }
+    
+    .addTr {
+        margin: 5px 0 5px 0;
+    }
+    </style>
+</head>
+
+<body>
+    <header>
+        <ul class="breadcrumb">
+            <li>
+                <a href="#">首页</a>
+                <span class="divider">/</span>
+            </li>
+            <li>
+                供应链系统
+                <span class="divider">/</span>
+            </li>
+            <li>
+                资源子系统
+                <span class="divider">/</span>
+            </li>
+            <li>
+                分销订单系统
+                <span class="divider">/</span>
+            </li>
+            <li>列表</li>
+        </ul>
+    </header>
+    <div class="container-fluid">
+        <fieldset>
+            <legend>查询</legend>
+            <div class="grid-info search">
+                <form id="queryForm">
+                    <table class="grid-table">
+                        <tr>
+{{#queryFields}}
+                          <th class='padding'>{{label}}:</th><td>
+                                <input id="{{name}}" name="{{name}}" class="input-medium" type="text" style="padding-left:1px;padding-right:1px;" />
+                            </td>
+{{/queryFields}}
+                        </tr>
+                    </table>
+                </form>
+                <a id="searchBtn" class="btn btn-primary searchBtn" style="margin:0 40px 10px 40px;"><i class="icon-search"></i> 搜索
+                </a>
+                <a id="clearBtn" class="btn btn-primary" style="margin:0 0 10px 20px;"><i class="icon-trash"></i> 清除筛选
+                </a>
+            </div>
+        </fieldset>
+        <fieldset>
+            <legend>列表</legend>
+            <div style="margin:0;padding:0">
+                <table>
+                    <tr>
+                        <td>
+                            <a id="addBtn" class="btn btn-tool" style="margin-top:10px;"> <i class="icon-plus"></i> 新增
+                            </a>
+                        </td>
+                    </tr>
+                </table>
+            </div>
+            <div id="{{fileNameLower}}List" style='margin-top:5px;'></div>
+        </fieldset>
+    </div>
+    <div id="createContent" style="display:none;">
+        <fieldset>
+            <legend>新增页面</legend>
+            <form autocomplete="off">
+                <table id="detailInputs" style="border-collapse:separate; border-spacing:10px;">
+{{#formFields}}
+                    <tr>
+                        <th>{{label}}:</th>
+                        <td>
+                            <input type="text" name="{{name}}" id="{{name}}" class="input-size validate" placeholder="" />
+                        </td>
+                    </tr>
+{{/formFields}}
+                </table>
+            </form>
+        </fieldset>
+    </div>
+    <footer></footer>
+</body>
+
+</html>
\ No newline at end of file
@@ -0,0 +1,316 @@
+function {{fileName}}List(config) {
+    $.extend(this, config, {
+        noty: new Noty(),
+        ver: new Ver()
+    });
+    this.init();
+}
+
+$.extend({{fileName}}List.prototype, {
+    init: function() {
+        $(document).ready(function() {
+            if (tn.Base64.decode(tn.cookie.get("honeydukesUname")) == "" || tn.cookie.get("honeydukesUid") == "") {
+                window.location.href = "../../../login/welcome.html";
+            }
+        });
+        //限制fieldset宽度
+        this.render.gridAuto.call(this);
+
+        var self = this;
+        //加载列表
+        var {{fileNameLower}}List = self.{{fileNameLower}}List = new TNGP(self.{{fileNameLower}}ListConf($("#{{fileNameLower}}List"))).tngp();
+        //绑定页面事件
+        self.bindEvent.btnClick.call(self);
+        self.reloadList.call(self);
+    },
+
+
+    /**
+     * 页面渲染
+     */
+    render: {
+        //固定fieldset内列表宽度
+        gridAuto: function() {
+            var w = $(".container-fluid").width() - 40;
+            var gridBox = $(".container-fluid").find(".grid-auto");
+            gridBox.width(w);
+            $(window).resize(function() {
+                var w = $(".container-fluid").width() - 40;
+                var gridBox = $(".container-fluid").find(".grid-auto");
+                gridBox.width(w);
+            });
+        }
+    },
+
+
+    bindPageData: {
+        showSavePage: function(data) {
+            var self = this;
+            self.showContent = $("#createContent").clone();
+            self.showWindow("{{fileName}}Create", self, { "operate": "add" });
+        }
+    },
+
+    /**
+     * 页面事件绑定
+     */
+    bindEvent: {
+        btnClick: function() {
+            var self = this;
+            //查询按钮
+            $("#searchBtn").unbind("click").click(function(e) {
+                self.reloadList.call(self);
+            });
+            $("#clearBtn").unbind("click").click(function(e) {
+                self.clearFliterParam.call(self);
+            });
+            //新增按钮
+            $("#addBtn").unbind("click").click(function(e) {
+                self.bindPageData.showSavePage.call(self);
+            });
+        }
+    },
+
+    /**
+     * 列表
+     */
+    {{fileNameLower}}ListConf: function(element) {
+        var self = this;
+        var linkUrl = self.getAction().linkUrl;
+        var tableConfig = {
+            url: self.getAction().get{{fileName}}List,
+            type: "GET",
+{{#streamJson}}
+            // 接口直接返回JSON, 不再经过Base64解码, gzip由浏览器解压
+            dataType: "json",
+{{/streamJson}}
+            el: element,
+            colModel: [{
+                display: 'checkbox',
+                name: 'checkbox',
+                width: 20,
+                handler: function(v, data, n, tr, index) {
+                    n.html($("<input type='checkbox'/>"));
+                }
+            },{{#listFields}}{{#id}}{
+                display: '序号',
+                name: 'id',
+                width: 60,
+                handler: function(v, data, n) {
+                    n.html("<a style='cursor:pointer;'>" + data.id + "</a>");
+                    n.find('a').click(function() {
+                        self.showContent = $("#createContent").clone();
+                        self.showWindow("{{fileName}}Create", self, { "operate": "view", "data": data });
+                    });
+                }
+            },{{/id}}{{#addTime}}{
+                display: '录入时间',
+                name: 'addTime',
+                width: 80,
+                handler: function(v, data, n, i, row) {
+                    var createAt = data.addTime;
+                    if (createAt) {
+                        var index = createAt.indexOf(" ");
+                        var date = createAt.substring(0, index);
+                        var time = createAt.substring(index + 1, createAt.length);
+                        var html = date + "<br/>" + time;
+                        n.attr("title", createAt);
+                        n.html(html);
+                    } else {
+                        createAt = "/";
+                        n.attr("title", createAt);
+                        n.html(createAt);
+                    }
+                }
+            },{{/addTime}}{{#updateTime}}{
+                display: '更新时间',
+                name: 'updateTime',
+                width: 80,
+                handler: function(v, data, n, i, row) {
+                    var createAt = data.updateTime;
+                    if (createAt) {
+                        var index = createAt.indexOf(" ");
+                        var date = createAt.substring(0, index);
+                        var time = createAt.substring(index + 1, createAt.length);
+                        var html = date + "<br/>" + time;
+                        n.attr("title", createAt);
+                        n.html(html);
+                    } else {
+                        createAt = "/";
+                        n.attr("title", createAt);
+                        n.html(createAt);
+                    }
+                }
+            },{{/updateTime}}{{#plain}}{
+                display: '{{label}}',
+                name: '{{name}}',
+                width: 80,
+                handler: function(v, data, n, i, row) {
+
+                }
+            },{{/plain}}{{/listFields}}{
+                display: '操作',
+                name: 'operate',
+                width: 180,
+                handler: function(v, data, n, i, row) {
+                    //复制
+                    var copy = $("<a><i class ='icon-share'></i>复制</a>").click(function() {
+                        self.showContent = $("#createContent").clone();
+                        self.showWindow("{{fileName}}Create", self, { "operate": "copy", "data": data });
+                    });
+                    //编辑
+                    var edit = $("<a><i class='icon-edit'></i>编辑</a>").click(function() {
+                        self.showContent = $("#createContent").clone();
+                        self.showWindow("{{fileName}}Create", self, { "operate": "edit", "data": data });
+                    });
+                    //删除
+                    var del = $("<a><i class ='icon-trash'></i>删除</a>").click(function() {
+                        self.delFun.call(self, row, data);
+                    });
+                    n.append(copy);
+                    n.append(edit);
+                    n.append(del);
+                }
+            }],
+            showToggleBtn: false,
+            height: "auto",
+            autoload: false
+        };
+        return tableConfig;
+    },
+
+
+    buildQueryPram: function() {
+        var self = this;
+        var queryParam = self.util.form.get($(".search"));
+        return queryParam;
+    },
+    /**
+     * 用于加载列表数据的方法
+     */
+    reloadList: function() {
+        var self = this;
+        self.{{fileNameLower}}List.reload(self.buildQueryPram());
+    },
+
+    clearFliterParam: function() {
+        $("input").val("");
+    },
+
+    //单个删除方法
+    delFun: function(row, data) {
+        var self = this;
+        var effectParam = [];
+        effectParam.push(data.id);
+        if (!effectParam) {
+            return;
+        }
+        self.noty.confirm("您确定要进行删除操作吗？", {
+            type: "btn btn-primary",
+            text: "<i class='icon-ok'></i>确定",
+            click: function(noty) {
+                tn.ajax.request({
+                    type: "POST",
+{{#streamJson}}
+                    dataType: "json",
+{{/streamJson}}
+                    url: self.getAction().batchDelete,
+                    data: {
+                        idList: effectParam,
+                        opUid: tn.cookie.get("honeydukesUid"),
+                        opName: Base64.decode(tn.cookie.get("honeydukesUname"))
+                    },
+                    listener: {
+                        success: function(json) {
+                            if (json.success) {
+                                self.noty.info("操作成功");
+                                setTimeout(function() { self.reloadList.call(self) }, 1000);
+                            } else {
+                                self.noty.info("操作失败");
+                            }
+                        }
+                    }
+                });
+                noty.close();
+            }
+        });
+    },
+
+    /**
+     * 批量删除方法
+     */
+    batchDelete: function() {
+        var self = this;
+        var batchEffectParam = self.getBatchParamIds();
+        if (!batchEffectParam) {
+            return;
+        }
+        self.noty.confirm("您确定要进行批量删除操作吗？", {
+            type: "btn btn-primary",
+            text: "<i class='icon-ok'></i>确定",
+            click: function(noty) {
+                tn.ajax.request({
+                    type: "POST",
+{{#streamJson}}
+                    dataType: "json",
+{{/streamJson}}
+                    url: self.getAction().batchDelete,
+                    data: {
+                        idList: batchEffectParam,
+                        opUid: tn.cookie.get("honeydukesUid"),
+                        opName: Base64.decode(tn.cookie.get("honeydukesUname"))
+                    },
+                    listener: {
+                        success: function(json) {
+                            if (json.success) {
+                                self.noty.info("操作成功");
+                            } else {
+                                self.noty.info("操作失败");
+                            }
+                            setTimeout(function() { self.reloadList.call(self) }, 1000);
+                        },
+                        requestcomplete: function() {
+                            $("#{{fileNameLower}}List input[type='checkbox']").attr("checked", false);
+                        },
+                        error: function() {
+                            self.noty.error("接口调用异常");
+                        }
+                    }
+                });
+                noty.close();
+            }
+        });
+
+    },
+    //
+    getBatchParamIds: function() {
+        var self = this;
+        var arr = this.{{fileNameLower}}List.getCheckedRowsData();
+        var ids = [];
+        $.each(arr, function(i, item) {
+            ids.push(item.id);
+        });
+        if (ids.length <= 0) {
+            self.noty.error("请勾选");
+            return;
+        }
+        return ids;
+    },
+
+    /**
+     * 页面AJAX请求URL统一处理
+     */
+    getAction: function() {
+        if (this.devcfg) {
+            return {
+                get{{fileName}}List: this.protectedSystem.server.ASR + "{{fileNameLower}}/query",
+                batchDelete: this.protectedSystem.server.ASR + "{{fileNameLower}}/delete",
+            };
+        } else {
+            return {
+                get{{fileName}}List: this.protectedSystem.server.ASR + "{{fileNameLower}}/query",
+                batchDelete: this.protectedSystem.server.ASR + "{{fileNameLower}}/delete",
+            };
+        }
+    }
+});
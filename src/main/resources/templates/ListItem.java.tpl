@@ -0,0 +1,24 @@
+package {{modelPackage}};
+
+import java.io.Serializable;
+
+/**
+ * 列表显示的字段, 列表查询只读取这些列
+ */
+public class {{fileName}}ListItem implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+{{#slimColumns}}
+    private {{javaType}} {{property}};
+{{/slimColumns}}
+{{#slimColumns}}
+
+    public {{javaType}} {{getter}}() {
+        return {{property}};
+    }
+
+    public void {{setter}}({{javaType}} {{property}}) {
+        this.{{property}} = {{property}};
+    }
+{{/slimColumns}}
+}
@@ -0,0 +1,78 @@
+
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    java.util.List<{{fileName}}> query{{fileName}}List({{fileName}}Req {{fileNameLower}}Req);
+
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    int query{{fileName}}Count({{fileName}}Req {{fileNameLower}}Req);
+{{#slimList}}
+
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    java.util.List<{{modelPackage}}.{{fileName}}ListItem> query{{fileName}}ListSlim({{fileName}}Req {{fileNameLower}}Req);
+{{/slimList}}
+{{#streamQuery}}
+
+    /**
+     * 逐行交给resultHandler处理, 结果不会全部放到内存中.
+{{#mysql}}
+     * MySQL驱动按行流式读取, 处理完之前同一个连接上不能执行别的语句.
+{{/mysql}}
+{{#postgresql}}
+     * PostgreSQL只在事务中(关闭自动提交)才按fetchSize分批读取, 否则仍会读取全部结果.
+{{/postgresql}}
+     */
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    void stream{{fileName}}List({{fileName}}Req {{fileNameLower}}Req, org.apache.ibatis.session.ResultHandler<{{fileName}}> resultHandler);
+
+    /**
+     * 用游标逐行读取, 需要在SqlSession(事务)结束前遍历完, 用完后关闭
+     */
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    org.apache.ibatis.cursor.Cursor<{{fileName}}> open{{fileName}}Cursor({{fileName}}Req {{fileNameLower}}Req);
+{{/streamQuery}}
+{{#deleteByIds}}
+
+    int deleteByIds(long[] ids);
+{{/deleteByIds}}
+{{#tableStatistics}}
+
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    Integer query{{fileName}}EstimatedCount();
+{{/tableStatistics}}
+{{#keyset}}
+
+{{#readWriteSplit}}
+    @{{modelPackage}}.ReadReplica
+{{/readWriteSplit}}
+    java.util.List<{{fileName}}> query{{fileName}}Page({{fileName}}Req {{fileNameLower}}Req);
+{{/keyset}}
+{{#batchInsert}}
+
+    int batchInsert(java.util.List<{{recordType}}> list);
+{{/batchInsert}}
+{{#upsert}}
+
+    /**
+     * 一次batchUpsert的行数不要超过这个值, 受数据库对语句参数个数的限制
+     */
+    int BATCH_UPSERT_ROWS = {{upsertRows}};
+
+    int upsert({{recordType}} record);
+
+    /**
+     * 一批中冲突键不能重复, 一条语句不能修改同一行两次, {{fileName}}Service.batchUpsert会先去重再分批
+     */
+    int batchUpsert(java.util.List<{{recordType}}> list);
+{{/upsert}}
+}
\ No newline at end of file
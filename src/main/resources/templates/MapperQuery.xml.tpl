@@ -0,0 +1,215 @@
+{{#cache}}
+  <cache eviction="{{cacheEviction}}"{{#cacheFlushInterval}} flushInterval="{{cacheFlushInterval}}"{{/cacheFlushInterval}} size="{{cacheSize}}" readOnly="{{cacheReadOnly}}" />
+
+{{/cache}}
+<select id="query{{fileName}}List" resultMap="BaseResultMap"{{#cache}} useCache="true" flushCache="false"{{/cache}}>
+    select
+    <include refid="Base_Column_List" />
+{{fromClause}}
+    where 1 = 1
+{{#columns}}
+    <if test="{{property}} != null and {{property}} != ''">
+      and {{column}} = #{{{property}}}
+    </if>
+{{/columns}}
+    order by id desc limit #{start},#{limit}
+  </select>
+
+  <select id="query{{fileName}}Count" resultType="java.lang.Integer"{{#cache}} useCache="true" flushCache="false"{{/cache}}>
+    select
+    count(1)
+{{fromClause}}
+    where 1 = 1
+{{#columns}}
+    <if test="{{property}} != null and {{property}} != ''">
+      and {{column}} = #{{{property}}}
+    </if>
+{{/columns}}
+  </select>{{#slimList}}
+
+  <resultMap id="SlimResultMap" type="{{modelPackage}}.{{fileName}}ListItem">
+{{#slimColumns}}
+{{#key}}
+    <id column="{{resultColumn}}" jdbcType="{{jdbcType}}" property="{{property}}" />
+{{/key}}
+{{^key}}
+    <result column="{{resultColumn}}" jdbcType="{{jdbcType}}" property="{{property}}" />
+{{/key}}
+{{/slimColumns}}
+  </resultMap>
+
+  <select id="query{{fileName}}ListSlim" resultMap="SlimResultMap"{{#cache}} useCache="true" flushCache="false"{{/cache}}>
+    select
+    {{#slimColumns}}{{^first}}, {{/first}}{{column}}{{/slimColumns}}
+{{fromClause}}
+    where 1 = 1
+{{#columns}}
+    <if test="{{property}} != null and {{property}} != ''">
+      and {{column}} = #{{{property}}}
+    </if>
+{{/columns}}
+    order by id desc limit #{start},#{limit}
+  </select>{{/slimList}}{{#streamQuery}}
+
+  <sql id="Stream_Where_Clause">
+    where 1 = 1
+{{#columns}}
+    <if test="{{property}} != null and {{property}} != ''">
+      and {{column}} = #{{{property}}}
+    </if>
+{{/columns}}
+  </sql>
+
+  <select id="stream{{fileName}}List" resultMap="BaseResultMap" resultSetType="FORWARD_ONLY" fetchSize="{{fetchSize}}"{{#cache}} useCache="false"{{/cache}}>
+    select
+    <include refid="Base_Column_List" />
+{{fromClause}}
+    <include refid="Stream_Where_Clause" />
+  </select>
+
+  <select id="open{{fileName}}Cursor" resultMap="BaseResultMap" resultSetType="FORWARD_ONLY" fetchSize="{{fetchSize}}"{{#cache}} useCache="false"{{/cache}}>
+    select
+    <include refid="Base_Column_List" />
+{{fromClause}}
+    <include refid="Stream_Where_Clause" />
+  </select>{{/streamQuery}}{{#deleteByIds}}
+
+  <delete id="deleteByIds">
+    delete from {{insertTable}}
+    where {{idColumn}} in
+    <foreach collection="array" item="id" open="(" separator="," close=")">
+      #{id}
+    </foreach>
+  </delete>{{/deleteByIds}}{{#tableStatistics}}
+
+  <select id="query{{fileName}}EstimatedCount" resultType="java.lang.Integer"{{#cache}} useCache="false"{{/cache}}>
+    select table_rows from information_schema.tables
+    where table_schema = database() and table_name = '{{tableName}}'
+  </select>{{/tableStatistics}}{{#keyset}}
+
+  <select id="query{{fileName}}Page" resultMap="BaseResultMap">
+    select
+    <include refid="Base_Column_List" />
+{{fromClause}}
+    where 1 = 1
+{{#columns}}
+    <if test="{{property}} != null and {{property}} != ''">
+      and {{column}} = #{{{property}}}
+    </if>
+{{/columns}}
+    <if test="{{#keyColumns}}{{^first}} and {{/first}}{{cursor}} != null{{/keyColumns}}">
+      and ({{#keyColumns}}{{^first}}
+        or {{#previous}}{{column}} = #{{{cursor}}} and {{/previous}}{{/first}}{{column}} &lt; #{{{cursor}}}{{/keyColumns}})
+    </if>
+    order by {{#keyColumns}}{{^first}}, {{/first}}{{column}} desc{{/keyColumns}} limit #{limit}
+  </select>{{/keyset}}{{#batchInsert}}
+
+  <insert id="batchInsert" parameterType="java.util.List"{{#batchKey}} useGeneratedKeys="true" keyProperty="{{property}}" keyColumn="{{column}}"{{/batchKey}}>
+{{#insertAll}}
+    insert all
+    <foreach collection="list" item="item">
+      into {{insertTable}} ({{#insertColumns}}{{^first}}, {{/first}}{{column}}{{/insertColumns}})
+      values ({{#insertColumns}}{{^first}}, {{/first}}{{value}}{{/insertColumns}})
+    </foreach>
+    select 1 from dual
+{{/insertAll}}
+{{^insertAll}}
+    insert into {{insertTable}} ({{#insertColumns}}{{^first}}, {{/first}}{{column}}{{/insertColumns}})
+    values
+    <foreach collection="list" item="item" separator=",">
+      ({{#insertColumns}}{{^first}}, {{/first}}{{value}}{{/insertColumns}})
+    </foreach>
+{{/insertAll}}
+  </insert>{{/batchInsert}}{{#upsert}}
+{{#upsertMySQL}}
+
+  <insert id="upsert">
+    insert into {{insertTable}} ({{#upsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertColumns}})
+    values ({{#upsertColumns}}{{^first}}, {{/first}}{{value}}{{/upsertColumns}})
+    on duplicate key update {{#hasUpdateColumns}}{{#updateColumns}}{{^first}}, {{/first}}{{column}} = values({{column}}){{/updateColumns}}{{/hasUpdateColumns}}{{^hasUpdateColumns}}{{#conflictKey}}{{#first}}{{column}} = {{column}}{{/first}}{{/conflictKey}}{{/hasUpdateColumns}}
+  </insert>
+
+  <insert id="batchUpsert" parameterType="java.util.List">
+    insert into {{insertTable}} ({{#upsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertColumns}})
+    values
+    <foreach collection="list" item="item" separator=",">
+      ({{#upsertColumns}}{{^first}}, {{/first}}{{itemValue}}{{/upsertColumns}})
+    </foreach>
+    on duplicate key update {{#hasUpdateColumns}}{{#updateColumns}}{{^first}}, {{/first}}{{column}} = values({{column}}){{/updateColumns}}{{/hasUpdateColumns}}{{^hasUpdateColumns}}{{#conflictKey}}{{#first}}{{column}} = {{column}}{{/first}}{{/conflictKey}}{{/hasUpdateColumns}}
+  </insert>
+{{/upsertMySQL}}
+{{#upsertOnConflict}}
+
+  <insert id="upsert">
+    insert into {{insertTable}} ({{#upsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertColumns}})
+    values ({{#upsertColumns}}{{^first}}, {{/first}}{{value}}{{/upsertColumns}})
+    on conflict ({{#conflictKey}}{{^first}}, {{/first}}{{column}}{{/conflictKey}}) do {{#hasUpdateColumns}}update set {{#updateColumns}}{{^first}}, {{/first}}{{column}} = excluded.{{column}}{{/updateColumns}}{{/hasUpdateColumns}}{{^hasUpdateColumns}}nothing{{/hasUpdateColumns}}
+  </insert>
+
+  <insert id="batchUpsert" parameterType="java.util.List">
+    insert into {{insertTable}} ({{#upsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertColumns}})
+    values
+    <foreach collection="list" item="item" separator=",">
+      ({{#upsertColumns}}{{^first}}, {{/first}}{{itemValue}}{{/upsertColumns}})
+    </foreach>
+    on conflict ({{#conflictKey}}{{^first}}, {{/first}}{{column}}{{/conflictKey}}) do {{#hasUpdateColumns}}update set {{#updateColumns}}{{^first}}, {{/first}}{{column}} = excluded.{{column}}{{/updateColumns}}{{/hasUpdateColumns}}{{^hasUpdateColumns}}nothing{{/hasUpdateColumns}}
+  </insert>
+{{/upsertOnConflict}}
+{{#upsertOracle}}
+
+  <update id="upsert">
+    merge into {{insertTable}} t
+    using (select {{#upsertColumns}}{{^first}}, {{/first}}{{value}} {{column}}{{/upsertColumns}} from dual) s
+    on ({{#conflictKey}}{{^first}} and {{/first}}t.{{column}} = s.{{column}}{{/conflictKey}})
+{{#hasUpdateColumns}}
+    when matched then update set {{#updateColumns}}{{^first}}, {{/first}}t.{{column}} = s.{{column}}{{/updateColumns}}
+{{/hasUpdateColumns}}
+    when not matched then insert ({{#upsertInsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertInsertColumns}})
+    values ({{#upsertInsertColumns}}{{^first}}, {{/first}}s.{{column}}{{/upsertInsertColumns}})
+  </update>
+
+  <update id="batchUpsert" parameterType="java.util.List">
+    merge into {{insertTable}} t
+    using (
+    <foreach collection="list" item="item" separator=" union all ">
+      select {{#upsertColumns}}{{^first}}, {{/first}}{{itemValue}} {{column}}{{/upsertColumns}} from dual
+    </foreach>
+    ) s
+    on ({{#conflictKey}}{{^first}} and {{/first}}t.{{column}} = s.{{column}}{{/conflictKey}})
+{{#hasUpdateColumns}}
+    when matched then update set {{#updateColumns}}{{^first}}, {{/first}}t.{{column}} = s.{{column}}{{/updateColumns}}
+{{/hasUpdateColumns}}
+    when not matched then insert ({{#upsertInsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertInsertColumns}})
+    values ({{#upsertInsertColumns}}{{^first}}, {{/first}}s.{{column}}{{/upsertInsertColumns}})
+  </update>
+{{/upsertOracle}}
+{{#upsertSqlServer}}
+
+  <update id="upsert">
+    merge into {{insertTable}} as t
+    using (values ({{#upsertColumns}}{{^first}}, {{/first}}{{value}}{{/upsertColumns}}))
+    as s ({{#upsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertColumns}})
+    on {{#conflictKey}}{{^first}} and {{/first}}t.{{column}} = s.{{column}}{{/conflictKey}}
+{{#hasUpdateColumns}}
+    when matched then update set {{#updateColumns}}{{^first}}, {{/first}}{{column}} = s.{{column}}{{/updateColumns}}
+{{/hasUpdateColumns}}
+    when not matched then insert ({{#upsertInsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertInsertColumns}})
+    values ({{#upsertInsertColumns}}{{^first}}, {{/first}}s.{{column}}{{/upsertInsertColumns}});
+  </update>
+
+  <update id="batchUpsert" parameterType="java.util.List">
+    merge into {{insertTable}} as t
+    using (values
+    <foreach collection="list" item="item" separator=",">
+      ({{#upsertColumns}}{{^first}}, {{/first}}{{itemValue}}{{/upsertColumns}})
+    </foreach>
+    ) as s ({{#upsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertColumns}})
+    on {{#conflictKey}}{{^first}} and {{/first}}t.{{column}} = s.{{column}}{{/conflictKey}}
+{{#hasUpdateColumns}}
+    when matched then update set {{#updateColumns}}{{^first}}, {{/first}}{{column}} = s.{{column}}{{/updateColumns}}
+{{/hasUpdateColumns}}
+    when not matched then insert ({{#upsertInsertColumns}}{{^first}}, {{/first}}{{column}}{{/upsertInsertColumns}})
+    values ({{#upsertInsertColumns}}{{^first}}, {{/first}}s.{{column}}{{/upsertInsertColumns}});
+  </update>
+{{/upsertSqlServer}}
+{{/upsert}}</mapper>
\ No newline at end of file
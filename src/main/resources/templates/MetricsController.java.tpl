@@ -0,0 +1,23 @@
+package {{modelPackage}};
+
+import com.tuniu.operation.platform.tsg.base.core.utils.JsonUtil;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 以JSON输出各个mapper语句的耗时分布, 行数和异常次数
+ */
+@Controller
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    @RequestMapping(method = RequestMethod.GET)
+    public void metrics(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().print(JsonUtil.toString(StatementMetrics.snapshot()));
+    }
+}
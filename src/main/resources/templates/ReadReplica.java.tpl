@@ -0,0 +1,17 @@
+package {{modelPackage}};
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标在mapper的查询方法上, 由ReadWriteRoutingInterceptor把查询路由到RoutingDataSource的从库.
+ * 没有标注的语句, 事务中的语句和当前线程刚写过的mapper的查询都走主库
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadReplica {
+}
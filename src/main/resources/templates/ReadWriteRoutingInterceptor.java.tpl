@@ -0,0 +1,140 @@
+package {{modelPackage}};
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 把mapper中标了@ReadReplica的查询路由到RoutingDataSource的从库, 其他语句走主库, 事务中的语句由RoutingDataSource保证走主库.
+ * 一个线程中某个mapper执行过写语句后stickyMillis毫秒内, 这个线程对它的查询也走主库, 避免从库同步延迟时读不到刚写入的数据.
+ * 写入时间按线程记录, 一个调用方的写入不会让其他调用方的查询都走主库, 所以另一个请求(比如保存后刷新列表)仍可能读到从库的旧数据.
+ * 在SqlSessionFactoryBean的plugins或mybatis-config.xml的&lt;plugins&gt;中注册, SqlSessionFactory的数据源要用RoutingDataSource
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class ReadWriteRoutingInterceptor implements Interceptor {
+
+    private long stickyMillis = {{stickyMillis}};
+
+    /**
+     * 当前线程中各个mapper最后一次执行写语句的时间
+     */
+    private final ThreadLocal<Map<String, Long>> lastWrites = new ThreadLocal<Map<String, Long>>() {
+        @Override
+        protected Map<String, Long> initialValue() {
+            return new HashMap<String, Long>();
+        }
+    };
+
+    /**
+     * 各个语句是否标了@ReadReplica
+     */
+    private final ConcurrentMap<String, Boolean> replicaStatements = new ConcurrentHashMap<String, Boolean>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        String namespace = namespaceOf(mappedStatement.getId());
+        if (mappedStatement.getSqlCommandType() != SqlCommandType.SELECT) {
+            try {
+                return proceed(invocation, false);
+            } finally {
+                lastWrites.get().put(namespace, System.currentTimeMillis());
+            }
+        }
+        return proceed(invocation, isReplicaStatement(mappedStatement.getId()) && !wroteRecently(namespace));
+    }
+
+    /**
+     * 语句执行时标记是否走从库, 执行完恢复原来的标记, 查询中嵌套执行的语句(比如延迟加载)不会改掉外层的标记
+     */
+    private static Object proceed(Invocation invocation, boolean replica) throws Throwable {
+        boolean previous = RoutingDataSource.isReplica();
+        RoutingDataSource.setReplica(replica);
+        try {
+            return invocation.proceed();
+        } finally {
+            RoutingDataSource.setReplica(previous);
+        }
+    }
+
+    private boolean wroteRecently(String namespace) {
+        Long lastWrite = lastWrites.get().get(namespace);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < stickyMillis;
+    }
+
+    private boolean isReplicaStatement(String statementId) {
+        Boolean replica = replicaStatements.get(statementId);
+        if (replica == null) {
+            replica = hasReadReplica(statementId);
+            replicaStatements.put(statementId, replica);
+        }
+        return replica;
+    }
+
+    /**
+     * 语句id是mapper接口名加方法名, 只在xml中定义的语句没有对应的方法
+     */
+    private static boolean hasReadReplica(String statementId) {
+        int dot = statementId.lastIndexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        try {
+            Class<?> mapperClass = Resources.classForName(statementId.substring(0, dot));
+            String methodName = statementId.substring(dot + 1);
+            for (Method method : mapperClass.getMethods()) {
+                if (method.getName().equals(methodName) && method.isAnnotationPresent(ReadReplica.class)) {
+                    return true;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            // namespace不是mapper接口
+        }
+        return false;
+    }
+
+    private static String namespaceOf(String statementId) {
+        int dot = statementId.lastIndexOf('.');
+        return dot < 0 ? statementId : statementId.substring(0, dot);
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    /**
+     * 可以用stickyMillis属性设置写后读主库的时间
+     */
+    @Override
+    public void setProperties(Properties properties) {
+        String millis = properties.getProperty("stickyMillis");
+        if (millis != null) {
+            stickyMillis = Long.parseLong(millis.trim());
+        }
+    }
+}
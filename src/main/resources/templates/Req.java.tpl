@@ -0,0 +1,71 @@
+package {{modelPackage}};
+public class {{fileName}}Req extends {{fileName}} {
+    private long[] idList;
+    private int start;
+    private int limit;
+{{#keyset}}
+    /**
+     * 键集分页: 上一页最后一行的主键, 为空时查询第一页
+     */
+{{#keyColumns}}
+    private {{javaType}} {{cursor}};
+{{/keyColumns}}
+{{/keyset}}
+{{#rowsField}}
+    /**
+     * 批量保存或修改的记录
+     */
+    private java.util.List<{{recordType}}> rows;
+{{/rowsField}}
+    public int getStart() {
+        return start;
+    }
+    public void setStart(int start) {
+        this.start = start;
+    }
+    public int getLimit() {
+        return limit;
+    }
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+{{#keyset}}
+{{#keyColumns}}
+    public {{javaType}} get{{cursorAccessor}}() {
+        return {{cursor}};
+    }
+    public void set{{cursorAccessor}}({{javaType}} {{cursor}}) {
+        this.{{cursor}} = {{cursor}};
+    }
+{{/keyColumns}}
+{{/keyset}}
+{{#rowsField}}
+    public java.util.List<{{recordType}}> getRows() {
+        return rows;
+    }
+    public void setRows(java.util.List<{{recordType}}> rows) {
+        this.rows = rows;
+    }
+{{/rowsField}}
+    public long[] getIdList() {
+        return idList;
+    }
+
+    public void setIdList(long[] idList) {
+        this.idList = idList;
+    }{{#countCached}}
+
+    /**
+     * @return 是否有查询条件, 和查询语句一样空字符串不算条件
+     */
+    public boolean hasFilter() {
+        return {{#columns}}{{^first}}
+                || {{/first}}({{getter}}() != null && !"".equals({{getter}}())){{/columns}}{{^columns}}false{{/columns}};
+    }
+
+    /**
+     * @return 查询条件的值, 作为总数缓存的键
+     */
+    public String filterKey() {
+        return ""{{#columns}}{{^first}} + "|"{{/first}} + {{getter}}(){{/columns}};
+    }{{/countCached}}}
@@ -0,0 +1,252 @@
+package {{modelPackage}};
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * 读写分离的数据源. 取到的连接是一个代理, 真正的连接在用到时才取: 创建语句时当前线程标记了从库, 并且连接是自动提交的,
+ * 语句在replica的连接上执行, 否则在primary的连接上执行. 标记由ReadWriteRoutingInterceptor在执行@ReadReplica的查询前设置.
+ * <p>
+ * 路由按语句而不是按连接, 所以一个SqlSession先在从库查询后再写, 写仍然发到主库. 关闭自动提交后(Spring事务或
+ * openSession()的手动提交会话)所有语句都走主库, 事务中能读到自己刚写的数据, 提交和回滚也只作用于主库.
+ * <p>
+ * 主从库可以是任意的DataSource, 比如本地测试时用两个sqlite文件:
+ * <pre>
+ * SQLiteDataSource primary = new SQLiteDataSource();
+ * primary.setUrl("jdbc:sqlite:primary.db");
+ * SQLiteDataSource replica = new SQLiteDataSource();
+ * replica.setUrl("jdbc:sqlite:replica.db");
+ * DataSource dataSource = new RoutingDataSource(primary, replica);
+ * </pre>
+ */
+public class RoutingDataSource implements DataSource {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<Boolean>();
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    /**
+     * primary的连接默认是否自动提交, 第一次取primary的连接时得到
+     */
+    private volatile Boolean defaultAutoCommit;
+
+    public RoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    /**
+     * 当前线程接下来取的连接是否来自从库, 用完后要设置回false
+     */
+    public static void setReplica(boolean replica) {
+        if (replica) {
+            REPLICA.set(Boolean.TRUE);
+        } else {
+            REPLICA.remove();
+        }
+    }
+
+    public static boolean isReplica() {
+        return REPLICA.get() != null;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return routingConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return routingConnection(username, password);
+    }
+
+    private Connection routingConnection(String username, String password) {
+        return (Connection) Proxy.newProxyInstance(RoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new RoutingConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+        replica.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+        replica.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    // JDK 7的DataSource才有这个方法, 不加@Override以便在JDK 6下编译
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    /**
+     * 按语句选择主从库连接的代理, 只在一个线程中使用
+     */
+    private class RoutingConnection implements InvocationHandler {
+
+        private final String username;
+
+        private final String password;
+
+        private Connection primaryConnection;
+
+        private Connection replicaConnection;
+
+        /**
+         * 调用方设置的自动提交, 没有设置时是primary连接的默认值
+         */
+        private Boolean autoCommit;
+
+        private boolean closed;
+
+        RoutingConnection(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "RoutingConnection[primary=" + primaryConnection + ", replica=" + replicaConnection + "]";
+            }
+            if ("isClosed".equals(name)) {
+                return closed;
+            }
+            if ("close".equals(name)) {
+                close();
+                return null;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if ("getAutoCommit".equals(name)) {
+                return isAutoCommit();
+            }
+            if ("setAutoCommit".equals(name)) {
+                autoCommit = (Boolean) args[0];
+                if (primaryConnection != null) {
+                    primaryConnection.setAutoCommit(autoCommit);
+                }
+                return null;
+            }
+            if (("commit".equals(name) || "rollback".equals(name)) && args == null) {
+                // 从库的连接总是自动提交, 没有用过主库时没有要提交的
+                if (primaryConnection != null) {
+                    method.invoke(primaryConnection);
+                }
+                return null;
+            }
+            boolean statement = "createStatement".equals(name) || "prepareStatement".equals(name)
+                    || "prepareCall".equals(name);
+            Connection target = statement && isReplica() && isAutoCommit() ? replicaConnection() : primaryConnection();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private boolean isAutoCommit() throws SQLException {
+            if (autoCommit != null) {
+                return autoCommit;
+            }
+            Boolean defaultValue = defaultAutoCommit;
+            return defaultValue != null ? defaultValue : primaryConnection().getAutoCommit();
+        }
+
+        private Connection primaryConnection() throws SQLException {
+            if (primaryConnection == null) {
+                Connection connection = username == null ? primary.getConnection()
+                        : primary.getConnection(username, password);
+                if (defaultAutoCommit == null) {
+                    defaultAutoCommit = connection.getAutoCommit();
+                }
+                if (autoCommit != null && connection.getAutoCommit() != autoCommit) {
+                    connection.setAutoCommit(autoCommit);
+                }
+                primaryConnection = connection;
+            }
+            return primaryConnection;
+        }
+
+        private Connection replicaConnection() throws SQLException {
+            if (replicaConnection == null) {
+                Connection connection = username == null ? replica.getConnection()
+                        : replica.getConnection(username, password);
+                if (!connection.getAutoCommit()) {
+                    connection.setAutoCommit(true);
+                }
+                replicaConnection = connection;
+            }
+            return replicaConnection;
+        }
+
+        private void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (primaryConnection != null) {
+                    primaryConnection.close();
+                }
+            } finally {
+                if (replicaConnection != null) {
+                    replicaConnection.close();
+                }
+            }
+        }
+    }
+}
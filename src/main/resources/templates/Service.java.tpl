@@ -0,0 +1,122 @@
+package {{modelPackage}};
+
+import {{daoPackage}}.{{fileName}}Mapper;
+{{#batchUpdate}}
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+{{/batchUpdate}}
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+{{#batchUpdate}}
+import java.sql.Statement;
+{{/batchUpdate}}
+import java.util.ArrayList;
+{{#upsert}}
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+{{/upsert}}
+import java.util.List;
+{{#upsert}}
+import java.util.Map;
+{{/upsert}}
+
+{{#batchUpdate}}
+/**
+ * 批量修改, 用BATCH执行器把多条update作为JDBC批处理发送, 每BATCH_FLUSH_STATEMENTS条发送一次.
+ * 方法在Spring事务中执行, BATCH的SqlSession用事务的连接, 全部修改一起提交, 中途失败时已发送的批次也回滚.
+ * 批处理中相邻的语句SQL相同才能合并, 所以每行最好修改相同的字段.
+{{#mysql}}
+ * MySQL需要在连接串上加 rewriteBatchedStatements=true, 驱动才会把一批update合成一次发送, 否则仍然是每条一次往返.
+{{/mysql}}
+ */
+{{/batchUpdate}}
+@Service
+public class {{fileName}}Service {
+{{#batchUpdate}}
+
+    private static final int BATCH_FLUSH_STATEMENTS = 500;
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+{{/batchUpdate}}
+{{#upsert}}
+
+    @Resource
+    private {{fileName}}Mapper {{fileNameLower}}Mapper;
+{{/upsert}}
+{{#batchUpdate}}
+
+    /**
+     * 按主键修改每行不为空的字段
+     *
+     * @return 每批修改的行数, 驱动不返回行数(Statement.SUCCESS_NO_INFO)的语句按一行计
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Integer> batchUpdate(List<{{recordType}}> rows) {
+        List<Integer> chunkCounts = new ArrayList<Integer>();
+        SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false);
+        try {
+            {{fileName}}Mapper mapper = sqlSession.getMapper({{fileName}}Mapper.class);
+            for (int i = 0; i < rows.size(); i++) {
+                mapper.updateByPrimaryKeySelective(rows.get(i));
+                if ((i + 1) % BATCH_FLUSH_STATEMENTS == 0 || i == rows.size() - 1) {
+                    chunkCounts.add(countUpdates(sqlSession.flushStatements()));
+                }
+            }
+            sqlSession.commit();
+            return chunkCounts;
+        } catch (RuntimeException e) {
+            sqlSession.rollback();
+            throw e;
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    private static int countUpdates(List<BatchResult> batchResults) {
+        int count = 0;
+        for (BatchResult batchResult : batchResults) {
+            for (int updateCount : batchResult.getUpdateCounts()) {
+                count += updateCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(updateCount, 0);
+            }
+        }
+        return count;
+    }
+{{/batchUpdate}}
+{{#upsert}}
+
+    /**
+     * 批量插入或修改, 每{{fileName}}Mapper.BATCH_UPSERT_ROWS行一条batchUpsert语句, 全部在一个事务中.
+     * 一条语句不能修改同一行两次(ON CONFLICT和MERGE会报错), 所以冲突键相同的行只保留最后一行, 和逐行upsert的结果相同.
+     * 冲突键有空值的行不会和已有的行冲突, 都会插入
+     *
+     * @return 数据库返回的影响行数, 各数据库对修改的行的计数方式不同
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int batchUpsert(List<{{recordType}}> rows) {
+        List<{{recordType}}> distinctRows = new ArrayList<{{recordType}}>();
+        Map<List<Object>, {{recordType}}> keyedRows = new LinkedHashMap<List<Object>, {{recordType}}>();
+        for ({{recordType}} row : rows) {
+            List<Object> key = Arrays.<Object>asList({{#conflictKey}}{{^first}}, {{/first}}row.{{getter}}(){{/conflictKey}});
+            if (key.contains(null)) {
+                distinctRows.add(row);
+            } else {
+                // 后面的行覆盖前面的行, 并排到后面
+                keyedRows.remove(key);
+                keyedRows.put(key, row);
+            }
+        }
+        distinctRows.addAll(keyedRows.values());
+        int count = 0;
+        for (int from = 0; from < distinctRows.size(); from += {{fileName}}Mapper.BATCH_UPSERT_ROWS) {
+            count += {{fileNameLower}}Mapper.batchUpsert(distinctRows.subList(from,
+                    Math.min(from + {{fileName}}Mapper.BATCH_UPSERT_ROWS, distinctRows.size())));
+        }
+        return count;
+    }
+{{/upsert}}
+}
@@ -0,0 +1,118 @@
+package {{modelPackage}};
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 每个mapper语句的耗时分布, 行数和异常次数, 由StatementMetricsInterceptor记录. 计数都是原子变量, 记录时不加锁
+ */
+public class StatementMetrics {
+
+    /**
+     * 耗时分布各个桶的上界(毫秒), 比最后一个上界还慢的记在最后一个桶中
+     */
+    private static final long[] BUCKET_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private static final ConcurrentMap<String, StatementMetrics> STATEMENTS = new ConcurrentHashMap<String, StatementMetrics>();
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_MILLIS.length + 1);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong rows = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param statementId 语句的id, 如 com.example.mapper.UserMapper.queryUserList
+     * @param rows 查询或修改的行数
+     */
+    public static void record(String statementId, long nanos, int rows, boolean error) {
+        StatementMetrics metrics = STATEMENTS.get(statementId);
+        if (metrics == null) {
+            metrics = new StatementMetrics();
+            StatementMetrics previous = STATEMENTS.putIfAbsent(statementId, metrics);
+            if (previous != null) {
+                metrics = previous;
+            }
+        }
+        metrics.count.incrementAndGet();
+        if (error) {
+            metrics.errors.incrementAndGet();
+        }
+        metrics.rows.addAndGet(rows);
+        metrics.totalNanos.addAndGet(nanos);
+        long max = metrics.maxNanos.get();
+        while (nanos > max && !metrics.maxNanos.compareAndSet(max, nanos)) {
+            max = metrics.maxNanos.get();
+        }
+        metrics.buckets.incrementAndGet(bucketOf(nanos / 1000000));
+    }
+
+    /**
+     * @return 按语句id排序的各个语句的统计
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<String, Object>();
+        for (Map.Entry<String, StatementMetrics> entry : STATEMENTS.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return snapshot;
+    }
+
+    private static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            if (millis < BUCKET_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_MILLIS.length;
+    }
+
+    private Map<String, Object> toMap() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        Map<String, Object> histogram = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.put(i < BUCKET_MILLIS.length ? "<" + BUCKET_MILLIS[i] + "ms" : ">=" + BUCKET_MILLIS[i - 1] + "ms",
+                    counts[i]);
+        }
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("count", count.get());
+        map.put("errors", errors.get());
+        map.put("rows", rows.get());
+        map.put("avgMillis", count.get() == 0 ? 0 : totalNanos.get() / count.get() / 1000000.0);
+        map.put("maxMillis", maxNanos.get() / 1000000.0);
+        // 百分位数取所在桶的上界
+        map.put("p50Millis", percentile(counts, total, 0.5));
+        map.put("p95Millis", percentile(counts, total, 0.95));
+        map.put("p99Millis", percentile(counts, total, 0.99));
+        map.put("histogram", histogram);
+        return map;
+    }
+
+    private long percentile(long[] counts, long total, double percent) {
+        long rank = (long) Math.ceil(total * percent);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return i < BUCKET_MILLIS.length ? BUCKET_MILLIS[i] : maxNanos.get() / 1000000;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,187 @@
+package {{modelPackage}};
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 记录每个mapper语句的耗时, 行数和异常次数到StatementMetrics, 耗时超过slowQueryMillis的语句记录慢查询日志,
+ * 日志中只有用到的查询条件的名字, 没有参数值. 交给ResultHandler的行也计入行数, 游标在关闭时记录读取的行数和整个读取的耗时. 在SqlSessionFactoryBean的plugins或mybatis-config.xml的&lt;plugins&gt;中注册
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementMetricsInterceptor.class);
+
+    private long slowQueryMillis = {{slowQueryMillis}};
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement mappedStatement = (MappedStatement) args[0];
+        CountingResultHandler resultHandler = null;
+        if (args.length >= 4 && args[3] != null) {
+            resultHandler = new CountingResultHandler(args[3]);
+            args[3] = resultHandler;
+        }
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            StatementMetrics.record(mappedStatement.getId(), System.nanoTime() - start, 0, true);
+            throw e;
+        }
+        if (result instanceof Cursor) {
+            @SuppressWarnings("unchecked")
+            Cursor<Object> cursor = (Cursor<Object>) result;
+            return new MeasuredCursor(cursor, invocation, start);
+        }
+        int rows = 0;
+        if (resultHandler != null) {
+            // 交给ResultHandler处理时返回的是空列表
+            rows = resultHandler.rows;
+        } else if (result instanceof Collection) {
+            rows = ((Collection<?>) result).size();
+        } else if (result instanceof Integer) {
+            // batch执行器返回的是负数的占位值
+            rows = Math.max(0, (Integer) result);
+        }
+        record(invocation, System.nanoTime() - start, rows);
+        return result;
+    }
+
+    private void record(Invocation invocation, long nanos, int rows) {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        StatementMetrics.record(mappedStatement.getId(), nanos, rows, false);
+        if (nanos >= slowQueryMillis * 1000000) {
+            LOGGER.warn("slow statement {} took {}ms, rows:{}, filters:{}", mappedStatement.getId(), nanos / 1000000,
+                    rows, filterShape(invocation, mappedStatement));
+        }
+    }
+
+    /**
+     * 绑定到语句的参数名, 也就是动态sql用到的查询条件
+     */
+    private List<String> filterShape(Invocation invocation, MappedStatement mappedStatement) {
+        Object[] args = invocation.getArgs();
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : mappedStatement.getBoundSql(args[1]);
+        List<String> names = new ArrayList<String>();
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            names.add(parameterMapping.getProperty());
+        }
+        return names;
+    }
+
+    private static class CountingResultHandler implements ResultHandler<Object> {
+
+        private final ResultHandler<Object> resultHandler;
+
+        private int rows;
+
+        @SuppressWarnings("unchecked")
+        CountingResultHandler(Object resultHandler) {
+            this.resultHandler = (ResultHandler<Object>) resultHandler;
+        }
+
+        @Override
+        public void handleResult(ResultContext<?> resultContext) {
+            rows++;
+            resultHandler.handleResult(resultContext);
+        }
+    }
+
+    /**
+     * 关闭时记录读取的行数和从执行语句到关闭的耗时
+     */
+    private class MeasuredCursor implements Cursor<Object> {
+
+        private final Cursor<Object> cursor;
+
+        private final Invocation invocation;
+
+        private final long start;
+
+        private boolean recorded;
+
+        MeasuredCursor(Cursor<Object> cursor, Invocation invocation, long start) {
+            this.cursor = cursor;
+            this.invocation = invocation;
+            this.start = start;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return cursor.isOpen();
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return cursor.isConsumed();
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return cursor.getCurrentIndex();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return cursor.iterator();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                cursor.close();
+            } finally {
+                if (!recorded) {
+                    recorded = true;
+                    record(invocation, System.nanoTime() - start, cursor.getCurrentIndex() + 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    /**
+     * 可以用slowQueryMillis属性设置慢查询的时间
+     */
+    @Override
+    public void setProperties(Properties properties) {
+        String millis = properties.getProperty("slowQueryMillis");
+        if (millis != null) {
+            slowQueryMillis = Long.parseLong(millis.trim());
+        }
+    }
+}
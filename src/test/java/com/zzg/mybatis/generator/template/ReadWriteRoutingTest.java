@@ -0,0 +1,241 @@
+package com.zzg.mybatis.generator.template;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Generates the read/write routing classes, compiles them with a mapper and runs the mapper against two sqlite files
+ */
+public class ReadWriteRoutingTest {
+
+    private static final String MAPPER = "package routing;\n"
+            + "import org.apache.ibatis.annotations.Insert;\n"
+            + "import org.apache.ibatis.annotations.Select;\n"
+            + "import java.util.List;\n"
+            + "public interface UserMapper {\n"
+            + "    @ReadReplica\n"
+            + "    @Select(\"select name from t_user order by id\")\n"
+            + "    List<String> list();\n"
+            + "    @Select(\"select name from t_user order by id\")\n"
+            + "    List<String> listFromPrimary();\n"
+            + "    @Insert(\"insert into t_user (name) values ('written')\")\n"
+            + "    int insert();\n"
+            + "}\n";
+
+    private File folder;
+
+    private File primary;
+
+    private File replica;
+
+    private URLClassLoader loader;
+
+    private ClassLoader contextLoader;
+
+    private Class<?> mapperClass;
+
+    private SqlSessionFactory sessionFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = Files.createTempDirectory("routing").toFile();
+        primary = createDb("primary.db", "primary");
+        replica = createDb("replica.db", "replica");
+
+        File sourceDir = new File(folder, "src/routing");
+        Map<String, Object> model = new HashMap<>();
+        model.put("modelPackage", "routing");
+        model.put("stickyMillis", 3000);
+        for (String name : Arrays.asList("ReadReplica", "RoutingDataSource", "ReadWriteRoutingInterceptor")) {
+            FileUtils.writeStringToFile(new File(sourceDir, name + ".java"),
+                    TemplateEngine.getTemplate(null, name + ".java.tpl").render(model), "UTF-8");
+        }
+        FileUtils.writeStringToFile(new File(sourceDir, "UserMapper.java"), MAPPER, "UTF-8");
+
+        File classDir = new File(folder, "classes");
+        Assert.assertTrue(classDir.mkdirs());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String mybatisJar = new File(Interceptor.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        String[] args = {"-nowarn", "-encoding", "UTF-8", "-cp", mybatisJar, "-d", classDir.getPath(),
+                new File(sourceDir, "ReadReplica.java").getPath(), new File(sourceDir, "RoutingDataSource.java").getPath(),
+                new File(sourceDir, "ReadWriteRoutingInterceptor.java").getPath(), new File(sourceDir, "UserMapper.java").getPath()};
+        Assert.assertEquals(0, compiler.run(null, null, null, args));
+
+        loader = new URLClassLoader(new URL[]{classDir.toURI().toURL()}, getClass().getClassLoader());
+        // the interceptor looks the mapper up by the statement id
+        contextLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        mapperClass = loader.loadClass("routing.UserMapper");
+        DataSource dataSource = (DataSource) loader.loadClass("routing.RoutingDataSource")
+                .getConstructor(DataSource.class, DataSource.class)
+                .newInstance(dataSource(primary), dataSource(replica));
+        Interceptor interceptor = (Interceptor) loader.loadClass("routing.ReadWriteRoutingInterceptor").newInstance();
+        Properties properties = new Properties();
+        properties.setProperty("stickyMillis", "500");
+        interceptor.setProperties(properties);
+
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.addInterceptor(interceptor);
+        configuration.addMapper(mapperClass);
+        sessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Thread.currentThread().setContextClassLoader(contextLoader);
+        if (loader != null) {
+            loader.close();
+        }
+        FileUtils.deleteDirectory(folder);
+    }
+
+    private File createDb(String name, String row) throws Exception {
+        File file = new File(folder, name);
+        Connection conn = dataSource(file).getConnection();
+        try {
+            Statement stat = conn.createStatement();
+            stat.executeUpdate("CREATE TABLE t_user (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT)");
+            stat.executeUpdate("INSERT INTO t_user (name) VALUES ('" + row + "')");
+            stat.close();
+        } finally {
+            conn.close();
+        }
+        return file;
+    }
+
+    private static DataSource dataSource(File file) {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + file.getPath());
+        return dataSource;
+    }
+
+    private static int countRows(File file) throws Exception {
+        Connection conn = dataSource(file).getConnection();
+        try {
+            Statement stat = conn.createStatement();
+            ResultSet rs = stat.executeQuery("SELECT count(*) FROM t_user");
+            rs.next();
+            int count = rs.getInt(1);
+            stat.close();
+            return count;
+        } finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * Call a mapper method in a session of its own, so each statement takes its own connection
+     */
+    private Object call(String method) throws Exception {
+        SqlSession session = sessionFactory.openSession(true);
+        try {
+            return call(session, method);
+        } finally {
+            session.close();
+        }
+    }
+
+    private Object call(SqlSession session, String method) throws Exception {
+        return mapperClass.getMethod(method).invoke(session.getMapper(mapperClass));
+    }
+
+    @Test
+    public void testReadReplicaQueryGoesToReplica() throws Exception {
+        Assert.assertEquals(Collections.singletonList("replica"), call("list"));
+        Assert.assertEquals(Collections.singletonList("primary"), call("listFromPrimary"));
+    }
+
+    @Test
+    public void testWriteGoesToPrimary() throws Exception {
+        Assert.assertEquals(1, call("insert"));
+        Assert.assertEquals(2, countRows(primary));
+        Assert.assertEquals(1, countRows(replica));
+    }
+
+    @Test
+    public void testReadAfterWriteStaysOnPrimary() throws Exception {
+        call("insert");
+        @SuppressWarnings("unchecked")
+        List<String> names = (List<String>) call("list");
+        Assert.assertEquals(Arrays.asList("primary", "written"), names);
+
+        // after stickyMillis the reads go to the replica again
+        Thread.sleep(600);
+        Assert.assertEquals(Collections.singletonList("replica"), call("list"));
+    }
+
+    @Test
+    public void testWriteAfterReplicaReadInOneSessionGoesToPrimary() throws Exception {
+        SqlSession session = sessionFactory.openSession(true);
+        try {
+            Assert.assertEquals(Collections.singletonList("replica"), call(session, "list"));
+            Assert.assertEquals(1, call(session, "insert"));
+        } finally {
+            session.close();
+        }
+        Assert.assertEquals(2, countRows(primary));
+        Assert.assertEquals(1, countRows(replica));
+    }
+
+    @Test
+    public void testTransactionStaysOnPrimary() throws Exception {
+        SqlSession session = sessionFactory.openSession(false);
+        try {
+            Assert.assertEquals(Collections.singletonList("primary"), call(session, "list"));
+            call(session, "insert");
+            Assert.assertEquals(Arrays.asList("primary", "written"), call(session, "list"));
+            session.rollback(true);
+        } finally {
+            session.close();
+        }
+        Assert.assertEquals(1, countRows(primary));
+    }
+
+    @Test
+    public void testWriteOfAnotherThreadDoesNotStick() throws Exception {
+        final Exception[] error = new Exception[1];
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    call("insert");
+                } catch (Exception e) {
+                    error[0] = e;
+                }
+            }
+        };
+        writer.start();
+        writer.join();
+        Assert.assertNull(error[0]);
+        Assert.assertEquals(2, countRows(primary));
+        Assert.assertEquals(Collections.singletonList("replica"), call("list"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.zzg.mybatis.generator.template;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TemplateTest {
+
+    private static Map<String, Object> column(String column, String cursor, boolean first) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("column", column);
+        map.put("cursor", cursor);
+        map.put("first", first);
+        return map;
+    }
+
+    private static String render(String source, Map<String, ?> model) {
+        return Template.compile("test", source).render(model);
+    }
+
+    @Test
+    public void testVariables() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("fileName", "User");
+        model.put("count", 3);
+        Assert.assertEquals("class UserReq 3", render("class {{fileName}}Req {{ count }}", model));
+        Assert.assertEquals("class Req", render("class {{missing}}Req", model));
+    }
+
+    @Test
+    public void testMyBatisParameter() {
+        Assert.assertEquals("id = #{id}", render("id = #{{{cursor}}}", Collections.singletonMap("cursor", "id")));
+    }
+
+    @Test
+    public void testSections() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("on", true);
+        model.put("off", false);
+        model.put("names", Arrays.asList("a", "b"));
+        model.put("empty", new ArrayList<>());
+        Assert.assertEquals("[on]", render("[{{#on}}on{{/on}}{{#off}}off{{/off}}{{#missing}}missing{{/missing}}]", model));
+        Assert.assertEquals("[ab]", render("[{{#names}}{{.}}{{/names}}{{#empty}}x{{/empty}}]", model));
+        Assert.assertEquals("[off,empty,missing]", render("[{{^on}}on,{{/on}}{{^off}}off,{{/off}}{{^empty}}empty,{{/empty}}"
+                + "{{^missing}}missing{{/missing}}{{^names}}names{{/names}}]", model));
+    }
+
+    @Test
+    public void testObjectSectionLooksUpOuterScopes() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("fileName", "User");
+        model.put("cache", Collections.singletonMap("size", 1024));
+        Assert.assertEquals("User 1024", render("{{#cache}}{{fileName}} {{size}}{{/cache}}", model));
+    }
+
+    @Test
+    public void testFirstAndPreviousKeys() {
+        List<Map<String, Object>> keyColumns = new ArrayList<>();
+        for (String name : Arrays.asList("a", "b", "c")) {
+            Map<String, Object> keyColumn = column(name, "last" + name.toUpperCase(), keyColumns.isEmpty());
+            keyColumn.put("previous", new ArrayList<>(keyColumns));
+            keyColumns.add(keyColumn);
+        }
+        String source = "{{#keyColumns}}{{^first}} or {{/first}}{{#previous}}{{column}} = #{{{cursor}}} and {{/previous}}"
+                + "{{column}} > #{{{cursor}}}{{/keyColumns}}";
+        Assert.assertEquals("a > #{lastA} or a = #{lastA} and b > #{lastB}"
+                        + " or a = #{lastA} and b = #{lastB} and c > #{lastC}",
+                render(source, Collections.singletonMap("keyColumns", keyColumns)));
+    }
+
+    @Test
+    public void testEmptyList() {
+        String source = "return {{#columns}}{{^first}} || {{/first}}{{column}} != null{{/columns}}{{^columns}}false{{/columns}};";
+        Assert.assertEquals("return false;", render(source, Collections.singletonMap("columns", new ArrayList<>())));
+        Assert.assertEquals("return a != null || b != null;", render(source, Collections.singletonMap("columns",
+                Arrays.asList(column("a", null, true), column("b", null, false)))));
+    }
+
+    @Test
+    public void testStandaloneTagsRemoveTheirLines() {
+        String source = "import a;\n{{#on}}\nimport b;\n{{/on}}\n  {{! comment }}\nimport c;\n";
+        Assert.assertEquals("import a;\nimport b;\nimport c;\n", render(source, Collections.singletonMap("on", true)));
+        Assert.assertEquals("import a;\nimport c;\n", render(source, Collections.singletonMap("on", false)));
+        // a section inside a line keeps the line
+        Assert.assertEquals("a  b\n", render("a {{#on}}x{{/on}} b\n", Collections.singletonMap("on", false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedSection() {
+        Template.compile("test", "{{#on}}x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedEndTag() {
+        Template.compile("test", "{{#on}}x{{/off}}");
+    }
+
+    @Test
+    public void testBundledTemplateIsCompiledOnce() throws Exception {
+        Template template = TemplateEngine.getTemplate(null, "Req.java.tpl");
+        Assert.assertSame(template, TemplateEngine.getTemplate("", "Req.java.tpl"));
+    }
+
+    @Test
+    public void testUserTemplateOverridesBundled() throws Exception {
+        File folder = Files.createTempDirectory("templates").toFile();
+        try {
+            File file = new File(folder, "Req.java.tpl");
+            FileUtils.writeStringToFile(file, "v1 {{fileName}}", "UTF-8");
+            file.setLastModified(1000000000000L);
+            Template template = TemplateEngine.getTemplate(folder.getPath(), "Req.java.tpl");
+            Assert.assertEquals("v1 User", template.render(Collections.singletonMap("fileName", "User")));
+            Assert.assertSame(template, TemplateEngine.getTemplate(folder.getPath(), "Req.java.tpl"));
+
+            FileUtils.writeStringToFile(file, "v2 {{fileName}}", "UTF-8");
+            file.setLastModified(1000000002000L);
+            template = TemplateEngine.getTemplate(folder.getPath(), "Req.java.tpl");
+            Assert.assertEquals("v2 User", template.render(Collections.singletonMap("fileName", "User")));
+
+            // templates missing from the folder are still the bundled ones
+            Assert.assertSame(TemplateEngine.getTemplate(null, "List.js.tpl"),
+                    TemplateEngine.getTemplate(folder.getPath(), "List.js.tpl"));
+        } finally {
+            FileUtils.deleteDirectory(folder);
+        }
+    }
+}
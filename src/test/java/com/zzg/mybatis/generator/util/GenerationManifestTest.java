@@ -0,0 +1,151 @@
+package com.zzg.mybatis.generator.util;
+
+import com.zzg.mybatis.generator.model.DatabaseConfig;
+import com.zzg.mybatis.generator.model.DbType;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class GenerationManifestTest {
+
+    private static final File CONFIG_DB = new File("config/sqlite3.db");
+
+    private static boolean createdConfigDb;
+
+    private DatabaseConfig config;
+
+    private File folder;
+
+    @BeforeClass
+    public static void createConfigDb() {
+        // the manifest creates its table itself, a config db made for the test is removed again
+        createdConfigDb = !CONFIG_DB.exists() && CONFIG_DB.getParentFile().mkdirs();
+    }
+
+    @AfterClass
+    public static void deleteConfigDb() throws Exception {
+        if (createdConfigDb) {
+            FileUtils.deleteDirectory(CONFIG_DB.getParentFile());
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        // a connection of its own, the entries of the real connections are not touched
+        config = new DatabaseConfig();
+        config.setDbType(DbType.Sqlite.name());
+        config.setHost("manifest-test-" + UUID.randomUUID());
+        config.setPort("0");
+        config.setSchema("");
+        config.setUsername("");
+        folder = Files.createTempDirectory("manifest").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    private void deleteEntries() throws Exception {
+        Connection conn = ConnectionManager.getConnection();
+        try {
+            PreparedStatement stat = conn.prepareStatement("DELETE FROM generation_manifest WHERE config_key = ?");
+            stat.setString(1, MetadataCache.configKey(config));
+            stat.executeUpdate();
+            stat.close();
+        } finally {
+            conn.close();
+        }
+    }
+
+    private GenerationManifest.FileEntry write(File file, String content) throws Exception {
+        FileUtils.writeStringToFile(file, content, "UTF-8");
+        return new GenerationManifest.FileEntry(GenerationManifest.digest(content), file);
+    }
+
+    @Test
+    public void testDigest() {
+        Assert.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                GenerationManifest.digest("abc"));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Assert.assertTrue(GenerationManifest.load(config).isEmpty());
+        try {
+            File file = new File(folder, "UserMapper.java");
+            GenerationManifest.TableEntry entry = new GenerationManifest.TableEntry();
+            entry.setFingerprint("fingerprint-1");
+            entry.getFiles().put(file.getAbsolutePath(), write(file, "interface UserMapper {}"));
+            Map<String, GenerationManifest.TableEntry> entries = new HashMap<>();
+            entries.put("t_user", entry);
+            GenerationManifest.save(config, entries);
+
+            Map<String, GenerationManifest.TableEntry> loaded = GenerationManifest.load(config);
+            Assert.assertEquals(1, loaded.size());
+            GenerationManifest.TableEntry loadedEntry = loaded.get("t_user");
+            Assert.assertEquals("fingerprint-1", loadedEntry.getFingerprint());
+            GenerationManifest.FileEntry loadedFile = loadedEntry.getFiles().get(file.getAbsolutePath());
+            Assert.assertEquals(GenerationManifest.digest("interface UserMapper {}"), loadedFile.getHash());
+            Assert.assertEquals(file.length(), loadedFile.getLength());
+            Assert.assertEquals(file.lastModified(), loadedFile.getLastModified());
+            Assert.assertTrue(loadedEntry.matchesFiles());
+
+            // saving the table again replaces its entry
+            entry.setFingerprint("fingerprint-2");
+            GenerationManifest.save(config, entries);
+            loaded = GenerationManifest.load(config);
+            Assert.assertEquals(1, loaded.size());
+            Assert.assertEquals("fingerprint-2", loaded.get("t_user").getFingerprint());
+        } finally {
+            deleteEntries();
+        }
+    }
+
+    @Test
+    public void testMatchesFilesAfterEdit() throws Exception {
+        File file = new File(folder, "UserMapper.java");
+        GenerationManifest.TableEntry entry = new GenerationManifest.TableEntry();
+        entry.getFiles().put(file.getAbsolutePath(), write(file, "interface UserMapper {}"));
+        Assert.assertTrue(entry.matchesFiles());
+
+        FileUtils.writeStringToFile(file, "interface UserMapper { int count(); }", "UTF-8");
+        Assert.assertFalse(entry.matchesFiles());
+    }
+
+    @Test
+    public void testMatchesFilesAfterTouch() throws Exception {
+        File file = new File(folder, "UserMapper.java");
+        GenerationManifest.TableEntry entry = new GenerationManifest.TableEntry();
+        entry.getFiles().put(file.getAbsolutePath(), write(file, "interface UserMapper {}"));
+
+        // an edit of the same length is still noticed by the modification time
+        Assert.assertTrue(file.setLastModified(file.lastModified() + 2000));
+        Assert.assertFalse(entry.matchesFiles());
+    }
+
+    @Test
+    public void testMatchesFilesAfterDelete() throws Exception {
+        File mapper = new File(folder, "UserMapper.java");
+        File xml = new File(folder, "UserMapper.xml");
+        GenerationManifest.TableEntry entry = new GenerationManifest.TableEntry();
+        entry.getFiles().put(mapper.getAbsolutePath(), write(mapper, "interface UserMapper {}"));
+        entry.getFiles().put(xml.getAbsolutePath(), write(xml, "<mapper/>"));
+        Assert.assertTrue(entry.matchesFiles());
+
+        Assert.assertTrue(xml.delete());
+        Assert.assertFalse(entry.matchesFiles());
+    }
+}
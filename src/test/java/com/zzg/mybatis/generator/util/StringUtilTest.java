@@ -38,4 +38,14 @@ public class StringUtilTest {
         Assert.assertEquals("A", result);
     }
 
+    @Test
+    public void testMatchTableName() {
+        Assert.assertTrue(MyStringUtils.matchTableName("t_user*", "t_user_address"));
+        Assert.assertTrue(MyStringUtils.matchTableName("T_USER%", "t_user"));
+        Assert.assertTrue(MyStringUtils.matchTableName("t_order, t_user?", "t_user1"));
+        Assert.assertFalse(MyStringUtils.matchTableName("t_user?", "t_user"));
+        Assert.assertFalse(MyStringUtils.matchTableName("t_user", "t_user_address"));
+        Assert.assertFalse(MyStringUtils.matchTableName("", "t_user"));
+    }
+
 }
@@ -0,0 +1,41 @@
+package com.zzg.mybatis.generator.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TableNameIndexTest {
+
+    private TableNameIndex<String> createIndex() {
+        TableNameIndex<String> index = new TableNameIndex<>();
+        for (String name : Arrays.asList("T_USER", "t_order_item", "t_order", "sys_log", "t_user_role")) {
+            index.add(name, name);
+        }
+        return index;
+    }
+
+    @Test
+    public void testFindByPrefix() {
+        TableNameIndex<String> index = createIndex();
+        Assert.assertEquals(Arrays.asList("t_order_item", "t_order"), index.find("T_ORD"));
+        Assert.assertEquals(Arrays.asList("T_USER", "t_user_role"), index.find("t_user"));
+        Assert.assertEquals(Collections.emptyList(), index.find("order"));
+    }
+
+    @Test
+    public void testFindBySubstring() {
+        TableNameIndex<String> index = createIndex();
+        Assert.assertEquals(Arrays.asList("t_order_item", "t_order"), index.find("*order"));
+        Assert.assertEquals(Arrays.asList("sys_log"), index.find("*LOG"));
+    }
+
+    @Test
+    public void testFindAfterAdd() {
+        TableNameIndex<String> index = createIndex();
+        Assert.assertEquals(5, index.find("").size());
+        index.add("t_a", "t_a");
+        Assert.assertEquals(Arrays.asList("t_a"), index.find("t_a"));
+    }
+}